@@ -0,0 +1,189 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A reader of the game records written by a BinaryResultSink, which iterates over the records of a file
+ * by memory mapping it, so files much larger than the heap are read without copying them first.
+ * Files larger than a single mapping are mapped one window at a time.
+ * Run with: java BinaryResultReader [file] to print the statistics of a file's games.
+ */
+public class BinaryResultReader implements Iterator<GameRecord>, Closeable {
+    private static final long MAP_BYTES = 1L << 30;
+    private static final Mark[] MARKS = Mark.values();
+    private static final String FORMAT_ERROR_MSG = "\"%s\" is not a game records file";
+    private static final String MAP_ERROR_MSG = "Failed to read \"%s\"";
+    private static final String READ_ERROR_MSG = "Could not read game records file: %s%n";
+    private static final String GAMES_MSG = "Read %d games of %dx%d, win streak %d%n";
+
+    private final String filename;
+    private final FileChannel channel;
+    private final long fileBytes;
+    private final int size;
+    private final int winStreak;
+    private final int squareBytes;
+    private final String[] playerNames = new String[2];
+    private MappedByteBuffer window = null;
+    private long windowStart = 0;
+
+    /**
+     * Constructor: Opens and maps the given file, and reads the format's header.
+     * @param filename: String - The path of the file.
+     * @throws IOException  Signals that the file couldn't be read or isn't a game records file.
+     */
+    public BinaryResultReader(String filename) throws IOException {
+        this.filename = filename;
+        this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        this.fileBytes = channel.size();
+        try {
+            map(0);
+            if (!hasBytes(Integer.BYTES + Short.BYTES) || window.getInt() != BinaryResultSink.MAGIC ||
+                    window.getShort() != BinaryResultSink.VERSION) {
+                throw new IOException(String.format(FORMAT_ERROR_MSG, filename));
+            }
+            size = window.getInt();
+            winStreak = window.getInt();
+            squareBytes = window.get();
+            for (int player = 0; player < playerNames.length; player++) {
+                byte[] bytes = new byte[Short.toUnsignedInt(window.getShort())];
+                window.get(bytes);
+                playerNames[player] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        } catch (RuntimeException e) {
+            channel.close();
+            throw new IOException(String.format(FORMAT_ERROR_MSG, filename), e);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a file's games, and prints their statistics, with: java BinaryResultReader [file]
+     * @param args: The path of the file.
+     */
+    public static void main(String[] args) {
+        try (BinaryResultReader reader = new BinaryResultReader(args[0])) {
+            TournamentStatistics statistics = new TournamentStatistics(reader.getPlayerNames());
+            while (reader.hasNext()) {
+                statistics.accept(reader.next());
+            }
+            System.out.printf(GAMES_MSG, statistics.getGames(), reader.getSize(), reader.getSize(),
+                    reader.getWinStreak());
+            statistics.printSummary();
+        } catch (IOException e) {
+            System.out.printf(READ_ERROR_MSG, args[0]);
+        }
+    }
+
+    /**
+     * Checks if there are more games in the file.
+     * @return boolean - true if there is another game, false otherwise.
+     */
+    @Override
+    public boolean hasNext() {
+        return windowStart + window.position() < fileBytes;
+    }
+
+    /**
+     * Reads the file's next game.
+     * @return GameRecord - The game's record.
+     * @throws NoSuchElementException  Signals that there are no more games in the file.
+     */
+    @Override
+    public GameRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (!hasBytes(BinaryResultSink.GAME_HEADER_BYTES)) {
+            throw new IllegalStateException(String.format(FORMAT_ERROR_MSG, filename));
+        }
+        int round = window.getInt();
+        int marks = window.get();
+        long nanos = window.getLong();
+        int[] moves = new int[window.getInt()];
+        for (int i = 0; i < moves.length; i++) {
+            if (!hasBytes(squareBytes)) {
+                throw new IllegalStateException(String.format(FORMAT_ERROR_MSG, filename));
+            }
+            if (squareBytes == Byte.BYTES) {
+                moves[i] = Byte.toUnsignedInt(window.get());
+            } else if (squareBytes == Short.BYTES) {
+                moves[i] = Short.toUnsignedInt(window.getShort());
+            } else {
+                moves[i] = window.getInt();
+            }
+        }
+        return new GameRecord(round, playerNames[round % 2], playerNames[(round + 1) % 2],
+                MARKS[marks >>> BinaryResultSink.MARK_BITS], MARKS[marks & BinaryResultSink.MARK_MASK],
+                moves, nanos);
+    }
+
+    /**
+     * Closes the file. The current window stays mapped until it is garbage collected.
+     * @throws IOException  Signals that closing the file resulted an exception to be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Getter: Gets the size of the games' board.
+     * @return int - The board's size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter: Gets the WinStreak's size of the games.
+     * @return int - The win streak.
+     */
+    public int getWinStreak() {
+        return winStreak;
+    }
+
+    /**
+     * Getter: Gets the types of the Tournament's players.
+     * @return String[] - The players' types, player 1 is the 'X' player of even rounds.
+     */
+    public String[] getPlayerNames() {
+        return playerNames.clone();
+    }
+
+    // private methods
+
+    /**
+     * Checks if a number of bytes can be read, mapping the next window if they are past the current one.
+     * @param bytes: int - The number of bytes.
+     * @return boolean - true if the bytes are in the file, false otherwise.
+     */
+    private boolean hasBytes(int bytes) {
+        long position = windowStart + window.position();
+        if (window.remaining() < bytes && position + bytes <= fileBytes) {
+            try {
+                map(position);
+            } catch (IOException e) {
+                throw new IllegalStateException(String.format(MAP_ERROR_MSG, filename), e);
+            }
+        }
+        return window.remaining() >= bytes;
+    }
+
+    /**
+     * Maps a window of the file, from a given position up to MAP_BYTES or the file's end.
+     * @param position: long - The window's position in the file.
+     * @throws IOException  Signals that mapping the file resulted an exception to be thrown.
+     */
+    private void map(long position) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_BYTES, fileBytes - position));
+        windowStart = position;
+    }
+}
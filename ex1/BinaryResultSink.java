@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A GameResultSink which streams compact binary records of a Tournament's games, moves included, to a file,
+ * for analysing large numbers of self-play games offline (read them back with BinaryResultReader).
+ * Records are collected in a direct buffer, and every full buffer is written to the file's channel at once.
+ * Records may be given from several threads, each record is written whole.
+ * File format (big endian):
+ *      header: magic (int), version (short), size (int), win streak (int), square bytes (byte),
+ *              then the two players' types (each a short length and UTF-8 bytes).
+ *      game:   round (int), starting Mark's ordinal << 2 | winner's ordinal (byte), wall time in
+ *              nanoseconds (long), move count (int), then every move's square (row * size + col)
+ *              in square bytes: 1 for boards of up to 256 squares, 2 for up to 65536, 4 otherwise.
+ */
+public class BinaryResultSink implements GameResultSink {
+    public static final int MAGIC = 0x54545447;
+    public static final short VERSION = 1;
+    public static final int MARK_BITS = 2;
+    public static final int MARK_MASK = (1 << MARK_BITS) - 1;
+    public static final int GAME_HEADER_BYTES = Integer.BYTES + Byte.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final String WRITE_ERROR_MSG = "Failed to write to \"%s\"";
+
+    private final String filename;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final int squareBytes;
+
+    /**
+     * Constructor: Opens the given file for writing, and writes the format's header.
+     * @param filename: String - The path of the file.
+     * @param playerNames: String[] - The types of the Tournament's players.
+     * @param size: int - The Tournament's board's size.
+     * @param winStreak: int - The Tournament's WinStreak's size.
+     * @throws IOException  Signals that opening the given file resulted an exception to be thrown.
+     */
+    public BinaryResultSink(String filename, String[] playerNames, int size, int winStreak) throws IOException {
+        this.filename = filename;
+        this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.squareBytes = squareBytes(size);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(size).putInt(winStreak).put((byte) squareBytes);
+        for (String playerName : playerNames) {
+            byte[] bytes = playerName.getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    /**
+     * Appends a game's record to the buffer, writing the buffer whenever it is full.
+     * @param record: GameRecord - The game's record.
+     */
+    @Override
+    public synchronized void accept(GameRecord record) {
+        int[] moves = record.getMoves();
+        reserve(GAME_HEADER_BYTES);
+        buffer.putInt(record.getRound())
+                .put((byte) (record.getStartingMark().ordinal() << MARK_BITS | record.getWinner().ordinal()))
+                .putLong(record.getNanos())
+                .putInt(moves.length);
+        for (int move : moves) {
+            reserve(squareBytes);
+            if (squareBytes == Byte.BYTES) {
+                buffer.put((byte) move);
+            } else if (squareBytes == Short.BYTES) {
+                buffer.putShort((short) move);
+            } else {
+                buffer.putInt(move);
+            }
+        }
+    }
+
+    /**
+     * Writes the last buffer and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        writeBuffer();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format(WRITE_ERROR_MSG, filename), e);
+        }
+    }
+
+    /**
+     * Computes the number of bytes of a square in the records of a board.
+     * @param size: int - The board's size.
+     * @return int - 1, 2 or 4 bytes.
+     */
+    public static int squareBytes(int size) {
+        long squares = (long) size * size;
+        if (squares <= 1 << Byte.SIZE) {
+            return Byte.BYTES;
+        }
+        return squares <= 1 << Short.SIZE ? Short.BYTES : Integer.BYTES;
+    }
+
+    // private methods
+
+    /**
+     * Makes room for a number of bytes in the buffer, writing the buffer if there isn't enough room.
+     * @param bytes: int - The number of bytes.
+     */
+    private void reserve(int bytes) {
+        if (buffer.remaining() < bytes) {
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Writes the buffer to the file's channel and empties it.
+     */
+    private void writeBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format(WRITE_ERROR_MSG, filename), e);
+        }
+        buffer.clear();
+    }
+}
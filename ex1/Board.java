@@ -1,15 +1,63 @@
+import java.util.Arrays;
+import java.util.Random;
+
 /**
  * A Board class - used to keep track of a current game's status.
+ * The board is stored as a bitboard: one bit array (of longs) per Mark,
+ * where square (row, col) is represented by bit (row * size + col).
+ * The board also keeps an append-only log of the played squares, so the last move is known
+ * without comparing boards, and moves can be replayed or undone.
+ * For every direction (row, column and both diagonals) the board keeps the length of every run
+ * of same Mark squares on the run's two end squares, updating it as marks are put, so the longest
+ * run through the last move is known in constant time.
+ * The board also keeps an index of its blank squares: an array of the blank squares and the position
+ * of every square in it, where a marked square is swapped with the last blank square and removed,
+ * so a random blank square is found in constant time.
+ * Moves can be made and unmade in place (makeMove, unmakeMove), with no allocation: the board keeps a
+ * Zobrist hash of its position, updated incrementally by every move, and the win status of the last move.
+ * The hashes of the board's 8 symmetries (rotations and reflections) give the canonical hash - the smallest
+ * of them - which identifies a position together with all its symmetric positions. They are computed from
+ * the move log only when the canonical hash is asked for, and kept until the next move, so searching
+ * moves only update the position's own hash.
  */
 public class Board {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+    public static final int NO_MOVE = -1;
+    private static final int DIRECTIONS = 4;
+    private static final int[] ROW_STEPS = {0, 1, 1, 1};
+    private static final int[] COL_STEPS = {1, 0, 1, -1};
+    private static final long HASH_SEED = 0x2545F4914F6CDD1DL;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long MIX_MULTIPLIER_1 = 0xBF58476D1CE4E5B9L;
+    private static final long MIX_MULTIPLIER_2 = 0x94D049BB133111EBL;
+    public static final int SYMMETRIES = 8;
+    private static final int IDENTITY = 0;
+    private static final int[] INVERSE_SYMMETRIES = {0, 3, 2, 1, 4, 5, 6, 7};
+
     // data members
     private int size = 4;
-    private Mark[][] board = null;
+    private int winStreak = 4;
+    private long[] xBits = null;
+    private long[] oBits = null;
+    private int[] moves = null;
+    private int moveCount = 0;
+    private int[][] runs = null;
+    private int[] leftRuns = null;
+    private int[] rightRuns = null;
+    private int[] moveRuns = null;
+    private int[] freeSquares = null;
+    private int[] freeIndices = null;
+    private int freeCount = 0;
+    private long hash = 0;
+    private final long[] symmetryHashes = new long[SYMMETRIES];
+    private boolean symmetryHashesValid = true;
 
     // constructors
 
     /**
      * Overrides Default ('blank') Constructor, initiates Board with default size 4.
+     * A win streak is a whole row, column or diagonal.
      */
     Board() {
         initBoard(4);
@@ -17,11 +65,36 @@ public class Board {
 
     /**
      * Board Constructor, initiates a Board instance of given size.
+     * A win streak is a whole row, column or diagonal.
      * @param size: int - The Board's instance size (size*size).
      */
     Board(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Board Constructor, initiates a Board instance of given size, for a game with a given win streak.
+     * @param size: int - The Board's instance size (size*size).
+     * @param winStreak: int - The length of a win streak in the Board's game.
+     */
+    Board(int size, int winStreak) {
+        this(size, winStreak, true);
+    }
+
+    /**
+     * Board Constructor, initiates a Board instance of given size, for a game with a given win streak.
+     * Boards which keep their squares in their own way (see SparseBoard) don't allocate the dense board,
+     * and override all the methods which use it.
+     * @param size: int - The Board's instance size (size*size).
+     * @param winStreak: int - The length of a win streak in the Board's game.
+     * @param dense: boolean - true to allocate the dense board, false otherwise.
+     */
+    protected Board(int size, int winStreak, boolean dense) {
         this.size = size;
-        initBoard(size);
+        this.winStreak = winStreak;
+        if (dense) {
+            initBoard(size);
+        }
     }
 
     // private methods
@@ -31,12 +104,22 @@ public class Board {
      * @param size: int - The board's size.
      */
     private void initBoard(int size) {
-        board = new Mark[size][size];
-        for (int row = 0; row < size; row ++) {
-            for (int col = 0; col < size; col ++) {
-                board[row][col] = Mark.BLANK;
-            }
+        int words = wordCount(size * size);
+        xBits = new long[words];
+        oBits = new long[words];
+        moves = new int[size * size];
+        moveCount = 0;
+        runs = new int[DIRECTIONS][size * size];
+        leftRuns = new int[size * size * DIRECTIONS];
+        rightRuns = new int[size * size * DIRECTIONS];
+        moveRuns = new int[size * size];
+        freeSquares = new int[size * size];
+        freeIndices = new int[size * size];
+        for (int square = 0; square < size * size; square++) {
+            freeSquares[square] = square;
+            freeIndices[square] = square;
         }
+        freeCount = size * size;
     }
 
     // public methods
@@ -50,19 +133,280 @@ public class Board {
      * @return true: if action was successful and board was updated accordingly. false: otherwise.
      */
     public boolean putMark(Mark mark, int row, int col) {
-        if (isOutOfRange(row, col) || board[row][col] != Mark.BLANK) {
+        if (isOutOfRange(row, col) || mark == Mark.BLANK) {
+            return false;
+        }
+        int square = row * size + col;
+        int word = square >>> WORD_SHIFT;
+        long bit = 1L << (square & WORD_MASK);
+        if (((xBits[word] | oBits[word]) & bit) != 0) {
+            return false;
+        }
+        getBits(mark)[word] |= bit;
+        updateRuns(mark, row, col);
+        removeFreeSquare(square);
+        updateHashes(square, mark);
+        moves[moveCount++] = square;
+        return true;
+    }
+
+    /**
+     * Undoes the last move played on the board, removing its mark.
+     * @return true: if a move was undone. false: if the board is blank.
+     */
+    public boolean undoLastMove() {
+        if (moveCount == 0) {
             return false;
         }
-        board[row][col] = mark;
+        int square = moves[--moveCount];
+        int word = square >>> WORD_SHIFT;
+        long bit = 1L << (square & WORD_MASK);
+        updateHashes(square, (xBits[word] & bit) != 0 ? Mark.X : Mark.O);
+        xBits[word] &= ~bit;
+        oBits[word] &= ~bit;
+        restoreRuns(square);
+        restoreFreeSquare(square);
         return true;
     }
 
+    /**
+     * Getter: Gets the number of blank squares on the board.
+     * @return int: The number of blank squares.
+     */
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    /**
+     * Getter: Gets a uniformly random blank square, in constant time.
+     * @param random: Random - The random generator to choose by.
+     * @return int: The square (row * size + col), or NO_MOVE if the board is full.
+     */
+    public int getRandomFreeSquare(Random random) {
+        return freeCount == 0 ? NO_MOVE : freeSquares[random.nextInt(freeCount)];
+    }
+
+    /**
+     * Getter: Gets the first blank square from a given square onwards, scanning the bitboards a word at a time.
+     * @param square: int - The square (row * size + col) to start from.
+     * @return int: The first blank square which is not before the given square, or NO_MOVE if there is none.
+     */
+    public int getNextFreeSquare(int square) {
+        int squares = size * size;
+        if (square >= squares) {
+            return NO_MOVE;
+        }
+        square = Math.max(square, 0);
+        int word = square >>> WORD_SHIFT;
+        long free = ~(xBits[word] | oBits[word]) & (-1L << (square & WORD_MASK));
+        while (free == 0 && ++word < xBits.length) {
+            free = ~(xBits[word] | oBits[word]);
+        }
+        if (free == 0) {
+            return NO_MOVE;
+        }
+        int next = (word << WORD_SHIFT) + Long.numberOfTrailingZeros(free);
+        return next < squares ? next : NO_MOVE;
+    }
+
+    /**
+     * Getter: Gets the last blank square up to a given square, scanning the bitboards a word at a time.
+     * @param square: int - The square (row * size + col) to start from.
+     * @return int: The last blank square which is not after the given square, or NO_MOVE if there is none.
+     */
+    public int getPrevFreeSquare(int square) {
+        if (square < 0) {
+            return NO_MOVE;
+        }
+        square = Math.min(square, size * size - 1);
+        int word = square >>> WORD_SHIFT;
+        long free = ~(xBits[word] | oBits[word]) & (-1L >>> (WORD_MASK - (square & WORD_MASK)));
+        while (free == 0 && --word >= 0) {
+            free = ~(xBits[word] | oBits[word]);
+        }
+        return free == 0 ? NO_MOVE : (word << WORD_SHIFT) + WORD_MASK - Long.numberOfLeadingZeros(free);
+    }
+
+    /**
+     * Makes a move in place, for searching: puts a given Mark on a given square.
+     * Assumes the square is blank. The move is unmade by unmakeMove.
+     * @param square: int - The square (row * size + col).
+     * @param mark: Mark - The mark to put.
+     * @return true: if the move completes a win streak. false: otherwise.
+     */
+    public boolean makeMove(int square, Mark mark) {
+        return putMark(mark, square / size, square % size) && isLastMoveWinning();
+    }
+
+    /**
+     * Unmakes the last move made (or put) on the board, restoring the board's hash and win status.
+     */
+    public void unmakeMove() {
+        undoLastMove();
+    }
+
+    /**
+     * Checks if a square is blank, for searching.
+     * @param square: int - The square (row * size + col).
+     * @return true: if the square is in range and blank. false: otherwise.
+     */
+    public boolean isBlank(int square) {
+        if (square < 0 || square >= size * size) {
+            return false;
+        }
+        return (((xBits[square >>> WORD_SHIFT] | oBits[square >>> WORD_SHIFT]) >>> (square & WORD_MASK)) & 1) == 0;
+    }
+
+    /**
+     * Checks if the last move played on the board completes a win streak. Takes constant time.
+     * @return true: if the last move completes a win streak. false: otherwise, or if the board is blank.
+     */
+    public boolean isLastMoveWinning() {
+        return getLastRunLength() >= winStreak;
+    }
+
+    /**
+     * Getter: Gets the Zobrist hash of the board's position: the xor of a random key of every marked
+     * square and its Mark. Equal positions have equal hashes, whatever order their moves were played in.
+     * @return long: The position's hash, 0 for a blank board.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Getter: Gets the canonical hash of the board's position: the smallest of the hashes of the position's
+     * 8 symmetric positions, mixed with the board's size and win streak. A position and its rotations and
+     * reflections have the same canonical hash.
+     * @return long: The position's canonical hash.
+     */
+    public long getCanonicalHash() {
+        return getSymmetryHashes()[getCanonicalSymmetry()] ^
+                mix(HASH_SEED ^ ((long) size << Integer.SIZE | winStreak));
+    }
+
+    /**
+     * Getter: Gets the symmetry which maps the board's position to its canonical position
+     * (the symmetric position with the smallest hash).
+     * Square q of the board is square symmetricSquare(size, q, getCanonicalSymmetry()) of the canonical position.
+     * @return int: The symmetry, between 0 (identity) and SYMMETRIES - 1.
+     */
+    public int getCanonicalSymmetry() {
+        long[] hashes = getSymmetryHashes();
+        int canonical = IDENTITY;
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+            if (hashes[symmetry] < hashes[canonical]) {
+                canonical = symmetry;
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Maps a square by one of the 8 symmetries of a board: 0 is the identity, 1-3 are rotations by 90, 180
+     * and 270 degrees, and 4-7 are reflections by the vertical and horizontal middle lines and the diagonals.
+     * @param size: int - The board's size.
+     * @param square: int - The square (row * size + col).
+     * @param symmetry: int - The symmetry.
+     * @return int: The square's image.
+     */
+    public static int symmetricSquare(int size, int square, int symmetry) {
+        int row = square / size;
+        int col = square % size;
+        int last = size - 1;
+        switch (symmetry) {
+            case 1:
+                return col * size + (last - row);
+            case 2:
+                return (last - row) * size + (last - col);
+            case 3:
+                return (last - col) * size + row;
+            case 4:
+                return row * size + (last - col);
+            case 5:
+                return (last - row) * size + col;
+            case 6:
+                return col * size + row;
+            case 7:
+                return (last - col) * size + (last - row);
+            default:
+                return square;
+        }
+    }
+
+    /**
+     * Gets the symmetry which undoes a given symmetry.
+     * @param symmetry: int - The symmetry.
+     * @return int: The inverse symmetry.
+     */
+    public static int inverseSymmetry(int symmetry) {
+        return INVERSE_SYMMETRIES[symmetry];
+    }
+
+    /**
+     * Getter: Gets the length of the longest run of same Mark squares through the last move,
+     * in any direction. Takes constant time.
+     * @return int: The longest run's length, or 0 if the board is blank.
+     */
+    public int getLastRunLength() {
+        return moveCount == 0 ? 0 : moveRuns[moveCount - 1];
+    }
+
+    /**
+     * Getter: Gets the number of moves played on the board.
+     * @return int: The number of moves played.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Getter: Gets the row of a move from the board's move log.
+     * @param index: int - The index of the move, 0 for the first move played.
+     * @return int: The row of the move, or NO_MOVE if there is no such move.
+     */
+    public int getMoveRow(int index) {
+        return isLoggedMove(index) ? moves[index] / size : NO_MOVE;
+    }
+
+    /**
+     * Getter: Gets the column of a move from the board's move log.
+     * @param index: int - The index of the move, 0 for the first move played.
+     * @return int: The column of the move, or NO_MOVE if there is no such move.
+     */
+    public int getMoveCol(int index) {
+        return isLoggedMove(index) ? moves[index] % size : NO_MOVE;
+    }
+
+    /**
+     * Getter: Gets the row of the last move played on the board.
+     * @return int: The row of the last move, or NO_MOVE if the board is blank.
+     */
+    public int getLastRow() {
+        return getMoveRow(moveCount - 1);
+    }
+
+    /**
+     * Getter: Gets the column of the last move played on the board.
+     * @return int: The column of the last move, or NO_MOVE if the board is blank.
+     */
+    public int getLastCol() {
+        return getMoveCol(moveCount - 1);
+    }
+
     /**
      * Getter: Gets the 2D Mark array representing the board.
+     * The array is built from the bitboard on every call, changing it does not affect the board.
      * @return Mark[][] - 2D Mark array of board.
      */
     public Mark[][] getBoard() {
-        return board;
+        Mark[][] marks = new Mark[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                marks[row][col] = getMark(row, col);
+            }
+        }
+        return marks;
     }
 
     /**
@@ -73,6 +417,14 @@ public class Board {
         return size;
     }
 
+    /**
+     * Getter: Gets the length of a win streak in the board's game.
+     * @return int: The win streak's length.
+     */
+    public int getWinStreak() {
+        return winStreak;
+    }
+
     /**
      * Getter: Gets the Mark on given (row, column).
      * Assumes row and col arguments are in the boards boarders.
@@ -84,7 +436,194 @@ public class Board {
         if (isOutOfRange(row, col)) {
             return Mark.BLANK;
         }
-        return board[row][col];
+        int square = row * size + col;
+        int word = square >>> WORD_SHIFT;
+        long bit = 1L << (square & WORD_MASK);
+        if ((xBits[word] & bit) != 0) {
+            return Mark.X;
+        }
+        if ((oBits[word] & bit) != 0) {
+            return Mark.O;
+        }
+        return Mark.BLANK;
+    }
+
+    // protected methods
+
+    /**
+     * Gets the random key of a Mark on a square, for the position's Zobrist hash.
+     * The keys are computed by mixing the square and Mark (SplitMix64), so no table is kept,
+     * and keys are the same for every board.
+     * @param square: int - The square (row * size + col).
+     * @param mark: Mark - X or O.
+     * @return long - The key.
+     */
+    protected static long squareKey(int square, Mark mark) {
+        return mix(HASH_SEED + GOLDEN_GAMMA * (2L * square + (mark == Mark.X ? 1 : 2)));
+    }
+
+    /**
+     * Adds (or removes) a Mark on a square to the position's hash. The hashes of the symmetric positions
+     * are computed again when they are next needed.
+     * @param square: int - The square (row * size + col).
+     * @param mark: Mark - X or O.
+     */
+    protected void updateHashes(int square, Mark mark) {
+        hash ^= squareKey(square, mark);
+        symmetryHashesValid = false;
+    }
+
+    // private methods
+
+    /**
+     * Gets the hashes of the position and its symmetric positions, computing them from the move log
+     * if a move was made or unmade since they were last computed.
+     * @return long[] - The hash of every symmetry, where IDENTITY's is the position's hash.
+     */
+    private long[] getSymmetryHashes() {
+        if (!symmetryHashesValid) {
+            Arrays.fill(symmetryHashes, 0);
+            for (int index = 0; index < getMoveCount(); index++) {
+                int row = getMoveRow(index);
+                int col = getMoveCol(index);
+                Mark mark = getMark(row, col);
+                for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                    symmetryHashes[symmetry] ^= squareKey(symmetricSquare(size, row * size + col, symmetry), mark);
+                }
+            }
+            symmetryHashesValid = true;
+        }
+        return symmetryHashes;
+    }
+
+    /**
+     * Mixes the bits of a value (the SplitMix64 finalizer).
+     * @param value: long - The value.
+     * @return long - The mixed value.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * MIX_MULTIPLIER_1;
+        value = (value ^ (value >>> 27)) * MIX_MULTIPLIER_2;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Getter: Gets the bitboard of a given Mark, bit (row * size + col) is set if the Mark is on (row, col).
+     * @param mark: Mark - X or O.
+     * @return long[] - The Mark's bitboard.
+     */
+    private long[] getBits(Mark mark) {
+        return mark == Mark.X ? xBits : oBits;
+    }
+
+    /**
+     * Calculates the number of longs needed to hold a given number of bits.
+     * @param bits: int - The number of bits.
+     * @return int - The number of longs.
+     */
+    private static int wordCount(int bits) {
+        return (bits + WORD_MASK) >>> WORD_SHIFT;
+    }
+
+    /**
+     * Removes a newly marked square from the blank squares, by moving the last blank square to its place.
+     * The square's index is kept, so the removal can be undone.
+     * @param square: int - The marked square.
+     */
+    private void removeFreeSquare(int square) {
+        int index = freeIndices[square];
+        int last = freeSquares[--freeCount];
+        freeSquares[index] = last;
+        freeIndices[last] = index;
+    }
+
+    /**
+     * Returns the square of an undone move to its place among the blank squares, moving the square which
+     * took its place back to the end, so the blank squares are in the same order as before the move.
+     * @param square: int - The square of the undone move.
+     */
+    private void restoreFreeSquare(int square) {
+        int index = freeIndices[square];
+        int moved = freeSquares[index];
+        freeSquares[freeCount] = moved;
+        freeIndices[moved] = freeCount++;
+        freeSquares[index] = square;
+    }
+
+    /**
+     * Joins a newly put mark with the runs of the same Mark next to it, in every direction.
+     * The new run's length is written on its end squares, and the lengths of the joined runs
+     * are saved in the move's entry, so the move can be undone.
+     * @param mark: Mark - The put mark.
+     * @param row: int - The row of the put mark.
+     * @param col: int - The column of the put mark.
+     */
+    private void updateRuns(Mark mark, int row, int col) {
+        long[] bits = getBits(mark);
+        int square = row * size + col;
+        int entry = moveCount * DIRECTIONS;
+        int longest = 0;
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            int rowStep = ROW_STEPS[direction];
+            int colStep = COL_STEPS[direction];
+            int step = rowStep * size + colStep;
+            int[] directionRuns = runs[direction];
+            int left = isMarked(bits, row - rowStep, col - colStep) ? directionRuns[square - step] : 0;
+            int right = isMarked(bits, row + rowStep, col + colStep) ? directionRuns[square + step] : 0;
+            int length = left + 1 + right;
+            directionRuns[square - left * step] = length;
+            directionRuns[square + right * step] = length;
+            leftRuns[entry + direction] = left;
+            rightRuns[entry + direction] = right;
+            longest = Math.max(longest, length);
+        }
+        moveRuns[moveCount] = longest;
+    }
+
+    /**
+     * Splits the runs joined by an undone move back to the runs next to it, in every direction.
+     * Called after the move was removed from the log, so moveCount is the move's index.
+     * @param square: int - The square of the undone move.
+     */
+    private void restoreRuns(int square) {
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            int step = ROW_STEPS[direction] * size + COL_STEPS[direction];
+            int left = leftRuns[moveCount * DIRECTIONS + direction];
+            int right = rightRuns[moveCount * DIRECTIONS + direction];
+            if (left > 0) {
+                runs[direction][square - step] = left;
+                runs[direction][square - left * step] = left;
+            }
+            if (right > 0) {
+                runs[direction][square + step] = right;
+                runs[direction][square + right * step] = right;
+            }
+        }
+    }
+
+    /**
+     * Checks if given (row, column) is marked in a given bitboard.
+     * The run ending on a marked square next to a blank square is always stored on that square.
+     * @param bits: long[] - The bitboard of a Mark.
+     * @param row: int - The row of the square.
+     * @param col: int - The column of the square.
+     * @return true: if the square is in range and marked in the bitboard. false: otherwise.
+     */
+    private boolean isMarked(long[] bits, int row, int col) {
+        if (isOutOfRange(row, col)) {
+            return false;
+        }
+        int square = row * size + col;
+        return ((bits[square >>> WORD_SHIFT] >>> (square & WORD_MASK)) & 1) != 0;
+    }
+
+    /**
+     * Checks if a given index is an index of a move in the move log.
+     * @param index: int - The checked index.
+     * @return true: if a move with the given index was played. false: otherwise.
+     */
+    private boolean isLoggedMove(int index) {
+        return index >= 0 && index < moveCount;
     }
 
     /**
@@ -96,4 +635,4 @@ public class Board {
     private boolean isOutOfRange(int row, int col) {
         return row < 0 || row >= size || col < 0 || col >= size;
     }
-}
+}
\ No newline at end of file
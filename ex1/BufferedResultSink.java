@@ -0,0 +1,91 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * An abstract GameResultSink which streams one line per game to a file.
+ * Lines are collected into a batch, and every full batch is written to the file at once,
+ * so no record is kept in memory after its batch is written.
+ * Records may be given from several threads, each record's line is written whole.
+ */
+public abstract class BufferedResultSink implements GameResultSink {
+    private static final int BATCH_CHARS = 1 << 16;
+
+    private final String filename;
+    private final Writer writer;
+    private final StringBuilder batch = new StringBuilder(BATCH_CHARS);
+    private char[] batchChars = new char[BATCH_CHARS];
+
+    /**
+     * Constructor: Opens the given file for writing, and writes the format's header.
+     * @param filename: String - The path of the file.
+     * @throws IOException  Signals that opening the given file resulted an exception to be thrown.
+     */
+    protected BufferedResultSink(String filename) throws IOException {
+        this.filename = filename;
+        this.writer = new OutputStreamWriter(Files.newOutputStream(Paths.get(filename)), StandardCharsets.UTF_8);
+        appendHeader(batch);
+    }
+
+    /**
+     * Appends a game's line to the current batch, writing the batch if it is full.
+     * @param record: GameRecord - The game's record.
+     */
+    @Override
+    public synchronized void accept(GameRecord record) {
+        appendRecord(batch, record);
+        if (batch.length() >= BATCH_CHARS) {
+            writeBatch();
+        }
+    }
+
+    /**
+     * Writes the last batch and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        writeBatch();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to write to \"%s\"", filename), e);
+        }
+    }
+
+    // protected methods
+
+    /**
+     * Appends the format's header to the file's first batch.
+     * @param out: StringBuilder - The batch.
+     */
+    protected abstract void appendHeader(StringBuilder out);
+
+    /**
+     * Appends a game's line to a batch.
+     * @param out: StringBuilder - The batch.
+     * @param record: GameRecord - The game's record.
+     */
+    protected abstract void appendRecord(StringBuilder out, GameRecord record);
+
+    // private methods
+
+    /**
+     * Writes the current batch to the file's writer and empties it.
+     */
+    private void writeBatch() {
+        if (batchChars.length < batch.length()) {
+            batchChars = new char[batch.length()];
+        }
+        batch.getChars(0, batch.length(), batchChars, 0);
+        try {
+            writer.write(batchChars, 0, batch.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to write to \"%s\"", filename), e);
+        }
+        batch.setLength(0);
+    }
+}
@@ -19,12 +19,13 @@ public class CleverPlayer implements Player {
     @Override
     public void playTurn(Board board, Mark mark) {
         int size = board.getSize();
-        int row = 0;
-        int col = 0;
-        do {    // increase coordinate by 1
-            coordinate = (coordinate + 1) % (size * size);
-            row = coordinate / size;
-            col = coordinate % size;
-        } while (!board.putMark(mark, row, col));   // check if coordinates are valid
+        int next = board.getNextFreeSquare((coordinate + 1) % (size * size));
+        if (next == Board.NO_MOVE) {    // go back to (0,0)
+            next = board.getNextFreeSquare(0);
+        }
+        if (next != Board.NO_MOVE) {
+            coordinate = next;
+            board.putMark(mark, coordinate / size, coordinate % size);
+        }
     }
 }
@@ -1,27 +1,30 @@
-
+import java.util.Arrays;
 import java.util.Map;
 import java.util.logging.Logger;
 
 /**
  * A supplied class for the Tic Tac Toe exercise in the OOP MOOC by the Hebrew University.
  * Renders a given part_2.Board to the console.
+ * The frame is drawn into a reusable char buffer, where only squares which changed since the last
+ * frame are redrawn, and printed with a single write.
+ * In ANSI mode, only the first frame is printed whole, and later frames only repaint the changed
+ * squares using ANSI cursor movement.
  *
  * @author Dan Nirel
  */
 public class ConsoleRenderer implements Renderer {
-    private static final Character FIRST_ROW = '0';
-    private static final Character FIRST_COL = '0';
     private static final int ROWS_PER_MARK = 3;
     private static final int COLS_PER_MARK = 9;
     private static final char DEFAULT_CHAR = ' ';
     private static final char HORIZONTAL_LINE_CHAR = '-';
     private static final char VERTICAL_LINE_CHAR = '|';
+    private static final char NEW_LINE_CHAR = '\n';
     private static final int NUM_ROWS_BEFORE_BOARD = 4;
-    private static final int NUM_COLS_BEFORE_BOARD = 6;
-
-    //                                            for the marks         for lines         for indices
-//	private static final int BUFFER_ROWS = board.getSize() * ROWS_PER_MARK + (board.getSize()-1) + NUM_ROWS_BEFORE_BOARD;
-//	private static final int BUFFER_COLS = board.getSize() * COLS_PER_MARK + (board.getSize()-1) + NUM_COLS_BEFORE_BOARD;
+    private static final int MIN_COLS_BEFORE_BOARD = 6;
+    private static final int COLS_AFTER_ROW_INDEX = 3;
+    private static final String ANSI_CLEAR_SCREEN = "\033[2J\033[H";
+    private static final String ANSI_MOVE_CURSOR = "\033[%d;%dH";
+    private static final String ANSI_CLEAR_BELOW = "\033[J";
 
     private static final Map<Mark, String[]> MARKS_DRAWINGS = Map.of(
 
@@ -38,48 +41,75 @@ public class ConsoleRenderer implements Renderer {
                                      "         "}
     );
 
-    private final char[][] buffer;// = new char[BUFFER_ROWS][BUFFER_COLS];
+    private final int size;
+    private final boolean ansi;
+    private final int colsBeforeBoard;
+    private final int bufferRows;
+    private final int lineLength;
+    //  bufferRows lines of (bufferCols chars + new line), followed by an empty line
+    private final char[] buffer;
+    private final Mark[] shownMarks;
+    private final StringBuilder ansiFrame = new StringBuilder();
+    private boolean framePrinted = false;
 
     /**
-     * Initializes the renderer.
+     * Initializes the renderer, which prints whole frames.
+     * @param size the size of the rendered boards.
      */
     public ConsoleRenderer(int size) {
-        int bufferRows = size * ROWS_PER_MARK + (size - 1) + NUM_ROWS_BEFORE_BOARD;
-        int bufferCols = size * COLS_PER_MARK + (size - 1) + NUM_COLS_BEFORE_BOARD;
-        this.buffer = new char[bufferRows][bufferCols];
+        this(size, false);
+    }
 
-        if (size > 9 || size < 2) {
-            String errorMsg = "part_2.Board size must be in the range [2, 9]";
+    /**
+     * Initializes the renderer.
+     * @param size the size of the rendered boards.
+     * @param ansi whether to repaint only the changed squares using ANSI escape codes.
+     */
+    public ConsoleRenderer(int size, boolean ansi) {
+        if (size < 1) {
+            String errorMsg = "part_2.Board size must be positive";
             Logger.getGlobal().severe(errorMsg);
             throw new Error(errorMsg);
         }
-
-        //fill buffer with spaces
-        for (int i = 0; i < buffer.length; i++) {
-            for (int j = 0; j < buffer[i].length; j++)
-                buffer[i][j] = DEFAULT_CHAR;
-        }
+        this.size = size;
+        this.ansi = ansi;
+
+        this.colsBeforeBoard = Math.max(MIN_COLS_BEFORE_BOARD,
+                String.valueOf(size - 1).length() + COLS_AFTER_ROW_INDEX);
+        this.bufferRows = size * ROWS_PER_MARK + (size - 1) + NUM_ROWS_BEFORE_BOARD;
+        int bufferCols = size * COLS_PER_MARK + (size - 1) + colsBeforeBoard;
+        this.lineLength = bufferCols + 1;
+        this.buffer = new char[bufferRows * lineLength + 1];
+        this.shownMarks = new Mark[size * size];
+
+        //fill buffer with spaces, and end every line
+        Arrays.fill(buffer, DEFAULT_CHAR);
+        for (int i = 0; i < bufferRows; i++)
+            buffer[i * lineLength + bufferCols] = NEW_LINE_CHAR;
+        buffer[buffer.length - 1] = NEW_LINE_CHAR;
 
         //draw horizontal lines
         for (int i = NUM_ROWS_BEFORE_BOARD + ROWS_PER_MARK; i < bufferRows; i += ROWS_PER_MARK + 1) {
-            for (int j = NUM_COLS_BEFORE_BOARD; j < bufferCols; j++)
-                buffer[i][j] = HORIZONTAL_LINE_CHAR;
+            for (int j = colsBeforeBoard; j < bufferCols; j++)
+                buffer[i * lineLength + j] = HORIZONTAL_LINE_CHAR;
         }
 
         //draw vertical lines
-        for (int i = NUM_COLS_BEFORE_BOARD + COLS_PER_MARK; i < bufferCols; i += COLS_PER_MARK + 1) {
+        for (int i = colsBeforeBoard + COLS_PER_MARK; i < bufferCols; i += COLS_PER_MARK + 1) {
             for (int j = NUM_ROWS_BEFORE_BOARD; j < bufferRows; j++)
-                buffer[j][i] = VERTICAL_LINE_CHAR;
+                buffer[j * lineLength + i] = VERTICAL_LINE_CHAR;
         }
 
-        //draw indices
-        char index = FIRST_COL; // start counting column indexes here
-        for (int col = NUM_COLS_BEFORE_BOARD + COLS_PER_MARK / 2; col < bufferCols; col += COLS_PER_MARK + 1)
-            buffer[NUM_ROWS_BEFORE_BOARD / 2][col] = index++;
-        index = FIRST_ROW; // start counting row indexes here: 00
-        for (int row = NUM_ROWS_BEFORE_BOARD + ROWS_PER_MARK / 2; row < bufferRows; row += ROWS_PER_MARK + 1) {
-            buffer[row][NUM_COLS_BEFORE_BOARD / 2 - 1] = index++;
-//			buffer[row][NUM_COLS_BEFORE_BOARD/2] = ' ';//'0';
+        //draw indices: column indices centered above columns, row indices right aligned before rows
+        for (int col = 0; col < size; col++) {
+            String index = String.valueOf(col);
+            drawText(NUM_ROWS_BEFORE_BOARD / 2,
+                    colsBeforeBoard + col * (COLS_PER_MARK + 1) + (COLS_PER_MARK - index.length()) / 2, index);
+        }
+        for (int row = 0; row < size; row++) {
+            String index = String.valueOf(row);
+            drawText(NUM_ROWS_BEFORE_BOARD + row * (ROWS_PER_MARK + 1) + ROWS_PER_MARK / 2,
+                    colsBeforeBoard - COLS_AFTER_ROW_INDEX - index.length(), index);
         }
     }
 
@@ -90,27 +120,54 @@ public class ConsoleRenderer implements Renderer {
      */
     @Override
     public void renderBoard(Board board) {
-        for (int i = 0; i < board.getSize(); i++) {
-            for (int j = 0; j < board.getSize(); j++) {
-                drawMarkInBuffer(NUM_ROWS_BEFORE_BOARD + i * (ROWS_PER_MARK + 1),
-                        NUM_COLS_BEFORE_BOARD + j * (COLS_PER_MARK + 1), board.getMark(i, j));
+        boolean repaint = ansi && framePrinted;
+        ansiFrame.setLength(0);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                Mark mark = board.getMark(i, j);
+                if (shownMarks[i * size + j] == mark) {
+                    continue;
+                }
+                shownMarks[i * size + j] = mark;
+                int rowStart = NUM_ROWS_BEFORE_BOARD + i * (ROWS_PER_MARK + 1);
+                int colStart = colsBeforeBoard + j * (COLS_PER_MARK + 1);
+                drawMarkInBuffer(rowStart, colStart, mark);
+                if (repaint) {
+                    appendAnsiMark(rowStart, colStart, mark);
+                }
             }
         }
 
-        for (int i = 0; i < buffer.length; i++) {
-            for (int j = 0; j < buffer[i].length; j++)
-                System.out.print(buffer[i][j]);
-            System.out.println();
+        if (repaint) {
+            // leave the cursor under the frame, and clear whatever was printed there
+            ansiFrame.append(String.format(ANSI_MOVE_CURSOR, bufferRows + 2, 1)).append(ANSI_CLEAR_BELOW);
+            System.out.print(ansiFrame);
+        } else if (ansi) {
+            ansiFrame.append(ANSI_CLEAR_SCREEN).append(buffer);
+            System.out.print(ansiFrame);
+            framePrinted = true;
+        } else {
+            System.out.print(buffer);
         }
-        System.out.println();
+        System.out.flush();
     }
 
     private void drawMarkInBuffer(int rowStart, int colStart, Mark mark) {
         String[] markLines = MARKS_DRAWINGS.get(mark);
         for (int i = 0; i < markLines.length; i++) {
-            for (int j = 0; j < markLines[i].length(); j++) {
-                buffer[rowStart + i][colStart + j] = markLines[i].charAt(j);
-            }
+            drawText(rowStart + i, colStart, markLines[i]);
         }
     }
+
+    private void appendAnsiMark(int rowStart, int colStart, Mark mark) {
+        String[] markLines = MARKS_DRAWINGS.get(mark);
+        for (int i = 0; i < markLines.length; i++) {
+            // ANSI rows and columns start from 1
+            ansiFrame.append(String.format(ANSI_MOVE_CURSOR, rowStart + i + 1, colStart + 1)).append(markLines[i]);
+        }
+    }
+
+    private void drawText(int row, int col, String text) {
+        text.getChars(0, text.length(), buffer, row * lineLength + col);
+    }
 }
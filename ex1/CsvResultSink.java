@@ -0,0 +1,46 @@
+import java.io.IOException;
+
+/**
+ * A BufferedResultSink which writes the game records as CSV, one row per game.
+ */
+public class CsvResultSink extends BufferedResultSink {
+    private static final String HEADER =
+            "round,x_player,o_player,starting_mark,winner,moves,nanos,nanos_per_move\n";
+    private static final char SEPARATOR = ',';
+    private static final char NEW_LINE = '\n';
+
+    /**
+     * Constructor: Opens the given CSV file for writing.
+     * @param filename: String - The path of the file.
+     * @throws IOException  Signals that opening the given file resulted an exception to be thrown.
+     */
+    public CsvResultSink(String filename) throws IOException {
+        super(filename);
+    }
+
+    /**
+     * Appends the CSV's column names.
+     * @param out: StringBuilder - The batch.
+     */
+    @Override
+    protected void appendHeader(StringBuilder out) {
+        out.append(HEADER);
+    }
+
+    /**
+     * Appends a game's CSV row.
+     * @param out: StringBuilder - The batch.
+     * @param record: GameRecord - The game's record.
+     */
+    @Override
+    protected void appendRecord(StringBuilder out, GameRecord record) {
+        out.append(record.getRound()).append(SEPARATOR)
+                .append(record.getXPlayer()).append(SEPARATOR)
+                .append(record.getOPlayer()).append(SEPARATOR)
+                .append(record.getStartingMark()).append(SEPARATOR)
+                .append(record.getWinner()).append(SEPARATOR)
+                .append(record.getMoveCount()).append(SEPARATOR)
+                .append(record.getNanos()).append(SEPARATOR)
+                .append(record.getNanosPerMove()).append(NEW_LINE);
+    }
+}
@@ -0,0 +1,269 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A benchmark suite of the Tic Tac Toe engine: games, win streak checks, players' turns and tournaments.
+ * Every benchmark is warmed up and then measured over several iterations, and reports its throughput
+ * (with the spread between iterations) and the bytes it allocates per operation.
+ * Run with: java EngineBenchmark [iterations] [millisPerIteration]
+ */
+class EngineBenchmark {
+    private static final int DEFAULT_ITERATIONS = 5;
+    private static final long DEFAULT_ITERATION_MILLIS = 1000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final long SEED = 42;
+    private static final int[][] GAME_CONFIGS = {{3, 3}, {4, 3}, {4, 4}, {6, 4}, {8, 5}, {9, 5}, {20, 5}};
+    private static final int[][] SPARSE_GAME_CONFIGS = {{1000, 5}};
+    private static final int[][] STREAK_CONFIGS = {{4, 3}, {8, 5}, {50, 5}};
+    private static final String[] TURN_PLAYERS = {
+            PlayerFactory.WHATEVER, PlayerFactory.CLEVER, PlayerFactory.GENIUS, PlayerFactory.SEARCH};
+    private static final String[][] TOURNAMENT_PLAYERS = {
+            {PlayerFactory.WHATEVER, PlayerFactory.WHATEVER},
+            {PlayerFactory.CLEVER, PlayerFactory.GENIUS}};
+    private static final int TOURNAMENT_ROUNDS = 10_000;
+    private static final int MONTE_CARLO_PLAYOUTS = 5_000;
+    private static final double DENSE_FILL = 0.9;
+    private static final double SPARSE_FILL = 0.1;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final String HEADER_FORMAT = "%-55s %15s %10s %15s%n";
+    private static final String RESULT_FORMAT = "%-55s %15.1f %10.1f %15.1f %s%n";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Keeps results of measured operations alive, so they are not optimized away. */
+    private static volatile Object sink = null;
+
+    private final int iterations;
+    private final long iterationNanos;
+
+    /**
+     * A measured operation, which performs a given number of units of work.
+     */
+    private interface Operation {
+        /**
+         * Runs the operation once.
+         * @return int - The number of units performed.
+         */
+        int run();
+    }
+
+    /**
+     * Constructor: Creates a benchmark suite.
+     * @param iterations: int - The number of measured iterations of every benchmark.
+     * @param iterationMillis: long - The length of each iteration.
+     */
+    EngineBenchmark(int iterations, long iterationMillis) {
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Runs the whole benchmark suite.
+     * @param args: Optional iteration count and iteration length in milliseconds.
+     */
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_ITERATION_MILLIS;
+        EngineBenchmark benchmark = new EngineBenchmark(iterations, millis);
+        System.out.printf(HEADER_FORMAT, "Benchmark", "Score", "Error", "Bytes/unit");
+        benchmark.benchmarkGames();
+        benchmark.benchmarkWinStreaks();
+        benchmark.benchmarkTurns();
+        benchmark.benchmarkMonteCarlo();
+        benchmark.benchmarkTournaments();
+    }
+
+    /**
+     * Benchmarks whole games between random players, for every board size and win streak,
+     * including large boards, which are played on a SparseBoard.
+     */
+    private void benchmarkGames() {
+        int[][] configs = Arrays.copyOf(GAME_CONFIGS, GAME_CONFIGS.length + SPARSE_GAME_CONFIGS.length);
+        System.arraycopy(SPARSE_GAME_CONFIGS, 0, configs, GAME_CONFIGS.length, SPARSE_GAME_CONFIGS.length);
+        for (int[] config : configs) {
+            Player[] players = {new WhateverPlayer(SEED), new WhateverPlayer(SEED + 1)};
+            Renderer renderer = new VoidRenderer();
+            measure(String.format("Game.run %dx%d streak %d", config[0], config[0], config[1]), "games/s",
+                    () -> {
+                        sink = new Game(players[0], players[1], config[0], config[1], renderer).run();
+                        return 1;
+                    });
+        }
+    }
+
+    /**
+     * Benchmarks putting marks and checking for a win streak after each one, on dense and sparse boards,
+     * by replaying the moves of random boards on new boards.
+     */
+    private void benchmarkWinStreaks() {
+        for (int[] config : STREAK_CONFIGS) {
+            for (double fill : new double[] {DENSE_FILL, SPARSE_FILL}) {
+                int size = config[0];
+                Board played = randomBoard(size, config[1], fill);
+                Game game = new Game(null, null, size, config[1], new VoidRenderer());
+                Mark[] marks = {Mark.X, Mark.O};
+                measure(String.format("Game.isWinStreak %dx%d streak %d %s", size, size, config[1],
+                        fill == DENSE_FILL ? "dense" : "sparse"), "moves/s", () -> {
+                    Board board = new Board(size, config[1]);
+                    int found = 0;
+                    for (int i = 0; i < played.getMoveCount(); i++) {
+                        board.putMark(marks[i % marks.length], played.getMoveRow(i), played.getMoveCol(i));
+                        found += game.isWinStreak(board) ? 1 : 0;
+                    }
+                    sink = found;
+                    return played.getMoveCount();
+                });
+            }
+        }
+    }
+
+    /**
+     * Benchmarks the turns of every automatic player, by letting it fill whole boards against itself.
+     * Every board is filled by a new player from a new factory, so a searching player starts every board with
+     * an empty position cache and its turns are measured by their search, not by cache hits.
+     */
+    private void benchmarkTurns() {
+        for (String type : TURN_PLAYERS) {
+            String playerName = new PlayerFactory().buildPlayer(type, SEED).getClass().getSimpleName();
+            for (int[] config : GAME_CONFIGS) {
+                int size = config[0];
+                if (type.equals(PlayerFactory.SEARCH) && size > 9) {
+                    continue;
+                }
+                measure(String.format("%s.playTurn %dx%d streak %d", playerName,
+                        size, size, config[1]), "turns/s", () -> {
+                    Player player = new PlayerFactory().buildPlayer(type, SEED);
+                    Board board = new Board(size, config[1]);
+                    Mark[] marks = {Mark.X, Mark.O};
+                    for (int turn = 0; turn < size * size; turn++) {
+                        player.playTurn(board, marks[turn % marks.length]);
+                    }
+                    sink = board;
+                    return size * size;
+                });
+            }
+        }
+    }
+
+    /**
+     * Benchmarks the first turn of the Monte Carlo player, on its own threads, and reports its playouts rate.
+     * Every turn is played by a new player, so no tree is reused between turns.
+     * Bytes are only counted on the measuring thread, not on the player's search threads.
+     */
+    private void benchmarkMonteCarlo() {
+        for (int[] config : GAME_CONFIGS) {
+            double turns = measure(String.format("MonteCarloPlayer.playTurn %dx%d streak %d",
+                    config[0], config[0], config[1]), "turns/s", () -> {
+                Board board = new Board(config[0], config[1]);
+                new MonteCarloPlayer(MONTE_CARLO_PLAYOUTS, MonteCarloPlayer.DEFAULT_TREES,
+                        Runtime.getRuntime().availableProcessors(), SEED).playTurn(board, Mark.X);
+                sink = board;
+                return 1;
+            });
+            System.out.printf(RESULT_FORMAT, "  playouts", turns * MONTE_CARLO_PLAYOUTS, 0.0, 0.0, "playouts/s");
+        }
+    }
+
+    /**
+     * Benchmarks whole tournaments without rendering: the sequential Tournament on the measuring thread,
+     * and the parallel TournamentTask on all cores.
+     * Bytes are only counted on the measuring thread, so the parallel bytes per game only count its share.
+     */
+    private void benchmarkTournaments() {
+        for (String[] playerNames : TOURNAMENT_PLAYERS) {
+            for (int[] config : GAME_CONFIGS) {
+                String name = String.format("Tournament %s-%s %dx%d streak %d",
+                        playerNames[0], playerNames[1], config[0], config[0], config[1]);
+                measure(name + " sequential", "games/s", () -> {
+                    PlayerFactory playerFactory = new PlayerFactory();
+                    Random random = new Random(SEED);
+                    Player[] players = new Player[playerNames.length];
+                    for (int i = 0; i < players.length; i++) {
+                        players[i] = playerFactory.buildPlayer(playerNames[i], random.nextLong());
+                    }
+                    sink = new Tournament(TOURNAMENT_ROUNDS, new VoidRenderer(), players)
+                            .playRounds(config[0], config[1], playerNames);
+                    return TOURNAMENT_ROUNDS;
+                });
+                measure(name + " parallel", "games/s", () -> {
+                    sink = new TournamentTask(playerNames, config[0], config[1], SEED, 0, TOURNAMENT_ROUNDS, null)
+                            .invoke();
+                    return TOURNAMENT_ROUNDS;
+                });
+            }
+        }
+    }
+
+    // private methods
+
+    /**
+     * Warms up and measures an operation, and prints its throughput and allocation per unit.
+     * @param name: String - The benchmark's name.
+     * @param unit: String - The throughput's unit.
+     * @param operation: Operation - The measured operation.
+     * @return double - The mean throughput.
+     */
+    private double measure(String name, String unit, Operation operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(operation);
+        }
+        double[] scores = new double[iterations];
+        double bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            double[] result = runIteration(operation);
+            scores[i] = result[0];
+            bytes += result[1] / iterations;
+        }
+        double mean = 0;
+        for (double score : scores) {
+            mean += score / iterations;
+        }
+        double variance = 0;
+        for (double score : scores) {
+            variance += (score - mean) * (score - mean) / Math.max(iterations - 1, 1);
+        }
+        System.out.printf(RESULT_FORMAT, name, mean, Math.sqrt(variance), bytes, unit);
+        return mean;
+    }
+
+    /**
+     * Runs an operation repeatedly for a single iteration's length.
+     * @param operation: Operation - The operation.
+     * @return double[] - {units per second, bytes allocated per unit}.
+     */
+    private double[] runIteration(Operation operation) {
+        long threadId = Thread.currentThread().getId();
+        long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long units = 0;
+        long elapsed;
+        do {
+            units += operation.run();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - startBytes;
+        return new double[] {units * NANOS_PER_SECOND / elapsed, (double) bytes / units};
+    }
+
+    /**
+     * Builds a board with a given part of its squares randomly marked, alternately by X and O.
+     * @param size: int - The board's size.
+     * @param winStreak: int - The board's win streak.
+     * @param fill: double - The part of the squares to mark.
+     * @return Board - The board.
+     */
+    private static Board randomBoard(int size, int winStreak, double fill) {
+        Board board = new Board(size, winStreak);
+        Random random = new Random(SEED);
+        Mark[] marks = {Mark.X, Mark.O};
+        for (int i = 0; i < size * size * fill; i++) {
+            while (!board.putMark(marks[i % marks.length], random.nextInt(size), random.nextInt(size))) {
+                // retry until a blank square is found
+            }
+        }
+        return board;
+    }
+}
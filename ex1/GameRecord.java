@@ -0,0 +1,105 @@
+/**
+ * A record of a single game played in a Tournament.
+ */
+public class GameRecord {
+    private final int round;
+    private final String xPlayer;
+    private final String oPlayer;
+    private final Mark startingMark;
+    private final Mark winner;
+    private final int[] moves;
+    private final long nanos;
+
+    /**
+     * Constructor: Creates a record of a game.
+     * @param round: int - The game's round in the Tournament.
+     * @param xPlayer: String - The type of the 'X' player.
+     * @param oPlayer: String - The type of the 'O' player.
+     * @param startingMark: Mark - The Mark which played first.
+     * @param winner: Mark - The winning Mark or BLANK if it's a tie.
+     * @param moves: int[] - The squares (row * size + col) of the game's moves, in the order they were played.
+     * @param nanos: long - The wall time of the game, in nanoseconds.
+     */
+    public GameRecord(int round, String xPlayer, String oPlayer, Mark startingMark, Mark winner,
+                      int[] moves, long nanos) {
+        this.round = round;
+        this.xPlayer = xPlayer;
+        this.oPlayer = oPlayer;
+        this.startingMark = startingMark;
+        this.winner = winner;
+        this.moves = moves;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Getter: Gets the game's round in the Tournament.
+     * @return int - The round.
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Getter: Gets the type of the 'X' player.
+     * @return String - The player's type.
+     */
+    public String getXPlayer() {
+        return xPlayer;
+    }
+
+    /**
+     * Getter: Gets the type of the 'O' player.
+     * @return String - The player's type.
+     */
+    public String getOPlayer() {
+        return oPlayer;
+    }
+
+    /**
+     * Getter: Gets the Mark which played first.
+     * @return Mark - The starting Mark.
+     */
+    public Mark getStartingMark() {
+        return startingMark;
+    }
+
+    /**
+     * Getter: Gets the winning Mark.
+     * @return Mark - The winning Mark or BLANK if it's a tie.
+     */
+    public Mark getWinner() {
+        return winner;
+    }
+
+    /**
+     * Getter: Gets the number of moves played in the game.
+     * @return int - The move count.
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Getter: Gets the moves played in the game. The record's own array is returned, don't change it.
+     * @return int[] - The squares (row * size + col) of the moves, in the order they were played.
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * Getter: Gets the wall time of the game.
+     * @return long - The game's time in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Getter: Gets the average wall time of a move in the game.
+     * @return long - Nanoseconds per move.
+     */
+    public long getNanosPerMove() {
+        return moves.length == 0 ? 0 : nanos / moves.length;
+    }
+}
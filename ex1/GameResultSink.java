@@ -0,0 +1,16 @@
+/**
+ * A GameResultSink interface for all the consumers of a Tournament's game records.
+ * The records of a parallel Tournament are given from several threads at once.
+ */
+public interface GameResultSink {
+    /**
+     * Consumes the record of a single game.
+     * @param record: GameRecord - The game's record.
+     */
+    void accept(GameRecord record);
+
+    /**
+     * Ends the consumption of records, after the last game of the Tournament.
+     */
+    void close();
+}
@@ -26,24 +26,20 @@ public class GeniusPlayer implements Player {
         } else if (board.getMark(FIRST_ROW, SECOND_COLUMN) != mark) {
             middleColumnIndex = 1;
         }
-        int row = 0;
-        int col = 0;
-        do {
-            if (middleColumnIndex < size)
-            {
-                coordinate = (middleColumnIndex * size) + 1;
-                row = coordinate / size;
-                col = coordinate % size;
-                middleColumnIndex++;
-                if (middleColumnIndex == size) {
-                    coordinate = (size * size);
-                }
+        while (middleColumnIndex < size) {
+            int row = middleColumnIndex;
+            middleColumnIndex++;
+            if (middleColumnIndex == size) {
+                coordinate = (size * size);
             }
-            else {
-                coordinate = (coordinate - 1) % (size * size);
-                row = coordinate / size;
-                col = coordinate % size;
+            if (board.putMark(mark, row, SECOND_COLUMN)) {
+                return;
             }
-        } while (!board.putMark(mark, row, col)); // check if coordinates are valid
+        }
+        int previous = board.getPrevFreeSquare(coordinate - 1);
+        if (previous != Board.NO_MOVE) {
+            coordinate = previous;
+            board.putMark(mark, coordinate / size, coordinate % size);
+        }
     }
 }
@@ -0,0 +1,42 @@
+import java.io.IOException;
+
+/**
+ * A BufferedResultSink which writes the game records as JSON Lines, one JSON object per game.
+ * Player types are written as given, since they are always one of the known (plain) player names.
+ */
+public class JsonLinesResultSink extends BufferedResultSink {
+
+    /**
+     * Constructor: Opens the given JSON Lines file for writing.
+     * @param filename: String - The path of the file.
+     * @throws IOException  Signals that opening the given file resulted an exception to be thrown.
+     */
+    public JsonLinesResultSink(String filename) throws IOException {
+        super(filename);
+    }
+
+    /**
+     * JSON Lines have no header, appends nothing.
+     * @param out: StringBuilder - The batch.
+     */
+    @Override
+    protected void appendHeader(StringBuilder out) {}
+
+    /**
+     * Appends a game's JSON object line.
+     * @param out: StringBuilder - The batch.
+     * @param record: GameRecord - The game's record.
+     */
+    @Override
+    protected void appendRecord(StringBuilder out, GameRecord record) {
+        out.append("{\"round\":").append(record.getRound())
+                .append(",\"xPlayer\":\"").append(record.getXPlayer())
+                .append("\",\"oPlayer\":\"").append(record.getOPlayer())
+                .append("\",\"startingMark\":\"").append(record.getStartingMark())
+                .append("\",\"winner\":\"").append(record.getWinner())
+                .append("\",\"moves\":").append(record.getMoveCount())
+                .append(",\"nanos\":").append(record.getNanos())
+                .append(",\"nanosPerMove\":").append(record.getNanosPerMove())
+                .append("}\n");
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A Player which chooses its moves by a parallel Monte Carlo Tree Search.
+ * Meant for large boards, where a full search is impossible.
+ * The player grows several trees (root parallelization) and the trees' visit counts of the
+ * root's moves are summed to choose the move. Trees are kept between turns of the same game.
+ * The trees are grown on a given number of threads, taken from a pool shared by all instances.
+ * Every tree has its own seeded random generator and is grown by a single thread at a time,
+ * so the player's moves depend on its seed and number of trees, and not on the number of threads.
+ */
+public class MonteCarloPlayer implements Player {
+    public static final int DEFAULT_PLAYOUTS = 20_000;
+    public static final int DEFAULT_TREES = 4;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int playoutsPerMove;
+    private final MonteCarloTree[] trees;
+    private final int parallelism;
+    private double lastPlayoutsPerSecond = 0;
+    private long totalPlayouts = 0;
+    private long totalNanos = 0;
+
+    /**
+     * Constructor: Creates a player with the default playout budget and number of trees,
+     * using up to all available cores.
+     */
+    public MonteCarloPlayer() {
+        this(new Random().nextLong());
+    }
+
+    /**
+     * Constructor: Creates a player with the default playout budget and number of trees,
+     * using up to all available cores, whose random choices are determined by a given seed.
+     * @param seed: long - The seed of the player's random generators.
+     */
+    public MonteCarloPlayer(long seed) {
+        this(DEFAULT_PLAYOUTS, DEFAULT_TREES, Runtime.getRuntime().availableProcessors(), seed);
+    }
+
+    /**
+     * Constructor: Creates a player with a given playout budget, number of trees and number of threads.
+     * @param playoutsPerMove: int - The number of playouts (of all trees together) per move.
+     * @param treeCount: int - The number of trees.
+     * @param parallelism: int - The maximal number of threads which grow the trees at once.
+     * @param seed: long - The seed of the player's random generators.
+     */
+    public MonteCarloPlayer(int playoutsPerMove, int treeCount, int parallelism, long seed) {
+        this.playoutsPerMove = playoutsPerMove;
+        this.parallelism = Math.max(1, Math.min(parallelism, treeCount));
+        Random seeds = new Random(seed);
+        trees = new MonteCarloTree[treeCount];
+        for (int i = 0; i < treeCount; i++) {
+            trees[i] = new MonteCarloTree(seeds.nextLong());
+        }
+    }
+
+    /**
+     * Override playTurn of Player interface.
+     * Plays a turn of the player according to the player's strategy and to the current board and mark.
+     * Strategy:
+     *      Plays many random games (playouts) from the current position, each one starting with the moves
+     *      which did best in the previous playouts, and plays the move which was tried most.
+     * @param board: Board - The board which the player is playing with.
+     * @param mark: Mark - The mark which represents the player on the board.
+     */
+    @Override
+    public void playTurn(Board board, Mark mark) {
+        long start = System.nanoTime();
+        int side = mark == Mark.X ? MonteCarloTree.X : MonteCarloTree.O;
+        for (MonteCarloTree tree : trees) {
+            tree.sync(board);
+        }
+        // every thread grows the trees of its own indices, one after another
+        List<Callable<Void>> searches = new ArrayList<>(parallelism);
+        for (int thread = 0; thread < parallelism; thread++) {
+            int firstTree = thread;
+            searches.add(() -> {
+                for (int i = firstTree; i < trees.length; i += parallelism) {
+                    trees[i].search(playoutsPerMove / trees.length + (i < playoutsPerMove % trees.length ? 1 : 0),
+                                    side);
+                }
+                return null;
+            });
+        }
+        runAll(searches);
+
+        long[] visits = new long[board.getSize() * board.getSize()];
+        for (MonteCarloTree tree : trees) {
+            tree.addRootVisits(visits);
+        }
+        int best = -1;
+        for (int square = 0; square < visits.length; square++) {
+            if (board.getMark(square / board.getSize(), square % board.getSize()) == Mark.BLANK &&
+                    (best == -1 || visits[square] > visits[best])) {
+                best = square;
+            }
+        }
+        board.putMark(mark, best / board.getSize(), best % board.getSize());
+
+        long nanos = System.nanoTime() - start;
+        lastPlayoutsPerSecond = playoutsPerMove * NANOS_PER_SECOND / Math.max(nanos, 1);
+        totalPlayouts += playoutsPerMove;
+        totalNanos += nanos;
+    }
+
+    /**
+     * Getter: Gets the playout throughput of the player's last move.
+     * @return double - Playouts per second of the last move.
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    /**
+     * Getter: Gets the playout throughput of all the player's moves so far.
+     * @return double - Playouts per second of all moves.
+     */
+    public double getPlayoutsPerSecond() {
+        return totalNanos == 0 ? 0 : totalPlayouts * NANOS_PER_SECOND / totalNanos;
+    }
+
+    /**
+     * Getter: Gets the number of playouts of all the player's moves so far.
+     * @return long - The playouts.
+     */
+    public long getTotalPlayouts() {
+        return totalPlayouts;
+    }
+
+    /**
+     * Getter: Gets the time the player spent on all its moves so far.
+     * @return long - The moves' time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    // private methods
+
+    /**
+     * Runs given searches on the player's threads and waits for all of them to end.
+     * @param searches: List - The searches.
+     */
+    private void runAll(List<Callable<Void>> searches) {
+        try {
+            for (Future<Void> future : EXECUTOR.invokeAll(searches)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A Monte Carlo search tree of a single thread, used by the MonteCarloPlayer.
+ * Keeps its own copy of the searched position and its own random generator, so trees of different
+ * threads share nothing. The tree is kept between turns: when the game goes on, the subtree of the
+ * new position becomes the tree's root.
+ */
+class MonteCarloTree {
+    static final int X = 0;
+    static final int O = 1;
+    private static final int BLANK = -1;
+    private static final int ONGOING = -1;
+    private static final int DRAW = 2;
+    private static final double WIN = 1;
+    private static final double TIE = 0.5;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final Random random;
+    private int size = 0;
+    private int winStreak = 0;
+
+    // the root position and the moves which led to it
+    private int[] rootCells = null;
+    private int[] rootMoves = null;
+    private int rootMoveCount = 0;
+    private Node root = null;
+
+    // the position of the current playout: its cells, and its free squares with their indices
+    private int[] cells = null;
+    private int[] free = null;
+    private int[] freeIndex = null;
+    private int freeCount = 0;
+
+    /**
+     * A node of the tree: a position, reached by a single move from its parent.
+     */
+    private static final class Node {
+        private final int square;
+        private final int mover;
+        private final int result;
+        private Node parent;
+        private Node[] children = null;
+        private int childCount = 0;
+        private int[] untried = null;
+        private int untriedCount = 0;
+        private int visits = 0;
+        private double wins = 0;
+
+        /**
+         * Constructor: Creates a node.
+         * @param square: int - The square of the move which led to the node.
+         * @param mover: int - The side which played the move.
+         * @param result: int - The winning side, DRAW, or ONGOING if the game isn't over.
+         * @param parent: Node - The parent node, or null for a root.
+         */
+        private Node(int square, int mover, int result, Node parent) {
+            this.square = square;
+            this.mover = mover;
+            this.result = result;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Constructor: Creates an empty tree.
+     * @param seed: long - The seed of the tree's random generator.
+     */
+    MonteCarloTree(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Moves the tree's root to the board's position.
+     * If the board's position follows the root's position, the matching subtree is kept,
+     * otherwise (a new game or a different board) the tree starts over.
+     * @param board: Board - The board of the game.
+     */
+    void sync(Board board) {
+        if (board.getSize() != size || board.getWinStreak() != winStreak) {
+            size = board.getSize();
+            winStreak = Math.min(board.getWinStreak(), size);
+            rootCells = new int[size * size];
+            rootMoves = new int[size * size];
+            cells = new int[size * size];
+            free = new int[size * size];
+            freeIndex = new int[size * size];
+            root = null;
+        }
+        int moveCount = board.getMoveCount();
+        boolean follows = root != null && moveCount >= rootMoveCount;
+        for (int i = 0; follows && i < rootMoveCount; i++) {
+            follows = rootMoves[i] == loggedSquare(board, i);
+        }
+        if (!follows) {
+            Arrays.fill(rootCells, BLANK);
+            rootMoveCount = 0;
+            root = new Node(-1, O, ONGOING, null);
+        }
+        for (int i = rootMoveCount; i < moveCount; i++) {
+            int square = loggedSquare(board, i);
+            int side = i % 2 == 0 ? X : O;
+            rootCells[square] = side;
+            rootMoves[rootMoveCount++] = square;
+            root = childOf(root, square, side);
+        }
+    }
+
+    /**
+     * Runs a given number of playouts from the root.
+     * @param playouts: int - The number of playouts.
+     * @param side: int - The side to move at the root.
+     */
+    void search(int playouts, int side) {
+        for (int i = 0; i < playouts; i++) {
+            playout(side);
+        }
+    }
+
+    /**
+     * Adds the visit count of every move of the root to a given array.
+     * @param visits: long[] - Visit counts indexed by square.
+     */
+    void addRootVisits(long[] visits) {
+        for (int i = 0; i < root.childCount; i++) {
+            visits[root.children[i].square] += root.children[i].visits;
+        }
+    }
+
+    // private methods
+
+    /**
+     * Gets the square of a move from a board's move log.
+     * @param board: Board - The board.
+     * @param index: int - The move's index.
+     * @return int - The move's square.
+     */
+    private int loggedSquare(Board board, int index) {
+        return board.getMoveRow(index) * size + board.getMoveCol(index);
+    }
+
+    /**
+     * Gets the child of a node by its move's square, or a new root if the node has no such child.
+     * The returned node is detached from its parent, so the rest of the old tree can be collected.
+     * @param node: Node - The parent node.
+     * @param square: int - The square of the move.
+     * @param side: int - The side which played the move.
+     * @return Node - The new root.
+     */
+    private Node childOf(Node node, int square, int side) {
+        for (int i = 0; i < node.childCount; i++) {
+            Node child = node.children[i];
+            if (child.square == square) {
+                child.parent = null;
+                return child;
+            }
+        }
+        return new Node(square, side, ONGOING, null);
+    }
+
+    /**
+     * Runs a single playout: selects a path down the tree by UCT, expands a single new node,
+     * plays random moves until the game is over and updates the path's statistics by the result.
+     * @param rootSide: int - The side to move at the root.
+     */
+    private void playout(int rootSide) {
+        resetPosition();
+        Node node = root;
+        int side = rootSide;
+        while (node.result == ONGOING) {
+            if (node.untried == null) {
+                node.untried = Arrays.copyOf(free, freeCount);
+                node.untriedCount = freeCount;
+                node.children = new Node[freeCount];
+            }
+            if (node.untriedCount > 0) {
+                int index = random.nextInt(node.untriedCount);
+                int square = node.untried[index];
+                node.untried[index] = node.untried[--node.untriedCount];
+                Node child = new Node(square, side, play(square, side), node);
+                node.children[node.childCount++] = child;
+                node = child;
+                side = 1 - side;
+                break;
+            }
+            node = selectChild(node);
+            play(node.square, side);
+            side = 1 - side;
+        }
+        int result = node.result != ONGOING ? node.result : rollout(side);
+        for (; node != null; node = node.parent) {
+            node.visits++;
+            node.wins += result == node.mover ? WIN : result == DRAW ? TIE : 0;
+        }
+    }
+
+    /**
+     * Selects the child of a fully expanded node with the best UCT value.
+     * @param node: Node - The node.
+     * @return Node - The selected child.
+     */
+    private Node selectChild(Node node) {
+        double logVisits = Math.log(node.visits);
+        Node best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < node.childCount; i++) {
+            Node child = node.children[i];
+            double value = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays random moves from the current position until the game is over.
+     * @param side: int - The side to move.
+     * @return int - The winning side or DRAW.
+     */
+    private int rollout(int side) {
+        int result = ONGOING;
+        while (result == ONGOING) {
+            result = play(free[random.nextInt(freeCount)], side);
+            side = 1 - side;
+        }
+        return result;
+    }
+
+    /**
+     * Resets the playout's position to the root position.
+     */
+    private void resetPosition() {
+        System.arraycopy(rootCells, 0, cells, 0, cells.length);
+        freeCount = 0;
+        for (int square = 0; square < cells.length; square++) {
+            if (cells[square] == BLANK) {
+                freeIndex[square] = freeCount;
+                free[freeCount++] = square;
+            }
+        }
+    }
+
+    /**
+     * Plays a move on the playout's position.
+     * @param square: int - The move's square.
+     * @param side: int - The side playing the move.
+     * @return int - The side if the move completed a win streak, DRAW if the board is full, ONGOING otherwise.
+     */
+    private int play(int square, int side) {
+        cells[square] = side;
+        int last = free[--freeCount];
+        free[freeIndex[square]] = last;
+        freeIndex[last] = freeIndex[square];
+        if (isWinStreak(square, side)) {
+            return side;
+        }
+        return freeCount == 0 ? DRAW : ONGOING;
+    }
+
+    /**
+     * Checks if a square is a part of a win streak of a given side, by counting in every direction.
+     * @param square: int - The square.
+     * @param side: int - The side.
+     * @return boolean - true if there is a win streak through the square, false otherwise.
+     */
+    private boolean isWinStreak(int square, int side) {
+        int row = square / size;
+        int col = square % size;
+        for (int[] direction : DIRECTIONS) {
+            int count = 1 + countSide(row, col, direction[0], direction[1], side) +
+                    countSide(row, col, -direction[0], -direction[1], side);
+            if (count >= winStreak) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the squares of a side after a given square in a given direction, until another square.
+     * @param row: int - The row of the square.
+     * @param col: int - The column of the square.
+     * @param rowDir: int - The direction's row step.
+     * @param colDir: int - The direction's column step.
+     * @param side: int - The counted side.
+     * @return int - The number of consecutive squares of the side.
+     */
+    private int countSide(int row, int col, int rowDir, int colDir, int side) {
+        int count = 0;
+        for (row += rowDir, col += colDir; row >= 0 && row < size && col >= 0 && col < size &&
+                cells[row * size + col] == side && count < winStreak; row += rowDir, col += colDir) {
+            count++;
+        }
+        return count;
+    }
+}
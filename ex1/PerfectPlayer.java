@@ -0,0 +1,165 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A Player which plays perfectly on small boards, by looking up the values of its moves in a solved
+ * PositionDatabase, memory mapped from the database's file in a given directory.
+ * If there is no such file, the board is solved and its file is written (to a temporary file which is
+ * then moved into place, so another process never maps a partly written file).
+ * Every database file is loaded once per process, and the read-only database is shared by all the players
+ * which use it, so players on concurrent threads wait for a single solve instead of solving the same board.
+ * On boards too large to be solved, plays as a SearchPlayer.
+ */
+public class PerfectPlayer implements Player {
+    /** The default databases' directory: the system's temporary directory, not the working directory. */
+    public static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"));
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String LOAD_ERROR_MSG = "Could not load a position database, searching instead: %s%n";
+    // the databases loaded (or being loaded) by all the players, by their files' absolute paths
+    private static final ConcurrentHashMap<Path, FutureTask<PositionDatabase>> DATABASES =
+            new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final Player fallback;
+    private PositionDatabase database = null;
+    private boolean loadFailed = false;
+
+    /**
+     * Constructor: Creates a player which keeps its databases in the default directory.
+     */
+    public PerfectPlayer() {
+        this(DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Constructor: Creates a player which keeps its databases in a given directory.
+     * @param directory: Path - The databases' directory.
+     */
+    public PerfectPlayer(Path directory) {
+        this(directory, new PositionCache());
+    }
+
+    /**
+     * Constructor: Creates a player which keeps its databases in a given directory, and whose search
+     * on boards too large to be solved shares a given position cache.
+     * @param directory: Path - The databases' directory.
+     * @param cache: PositionCache - The cache of the search's best moves.
+     */
+    public PerfectPlayer(Path directory, PositionCache cache) {
+        this.directory = directory;
+        this.fallback = new SearchPlayer(cache);
+    }
+
+    /**
+     * Override playTurn of Player interface.
+     * Plays a turn of the player according to the player's strategy and to the current board and mark.
+     * Strategy:
+     *      Plays the move with the best game theoretic value: the fastest win if there is one,
+     *      otherwise a draw, otherwise the slowest loss.
+     * @param board: Board - The board which the player is playing with.
+     * @param mark: Mark - The mark which represents the player on the board.
+     */
+    @Override
+    public void playTurn(Board board, Mark mark) {
+        if (!loadDatabase(board)) {
+            fallback.playTurn(board, mark);
+            return;
+        }
+        int size = board.getSize();
+        long[] keys = database.keysOf(board);
+        int bestSquare = Board.NO_MOVE;
+        int bestValue = PositionDatabase.NOT_FOUND;
+        for (int square = 0; square < size * size; square++) {
+            if (!board.isBlank(square)) {
+                continue;
+            }
+            int value;
+            if (board.makeMove(square, mark)) {
+                value = PositionDatabase.packValue(PositionDatabase.WIN, 1);
+            } else if (board.getMoveCount() == size * size) {
+                value = PositionDatabase.packValue(PositionDatabase.DRAW, 1);
+            } else {
+                int childValue = database.lookup(database.canonicalKeyAfter(keys, square, mark));
+                value = childValue == PositionDatabase.NOT_FOUND ?
+                        PositionDatabase.NOT_FOUND : PositionDatabase.valueOfMove(childValue);
+            }
+            board.unmakeMove();
+            if (bestSquare == Board.NO_MOVE || PositionDatabase.rank(value) > PositionDatabase.rank(bestValue)) {
+                bestSquare = square;
+                bestValue = value;
+            }
+        }
+        if (bestSquare != Board.NO_MOVE) {
+            board.putMark(mark, bestSquare / size, bestSquare % size);
+        }
+    }
+
+    // private methods
+
+    /**
+     * Loads the database of a board, unless it is already loaded. The first player to ask for a database
+     * file loads it, and every other player waits for it and then shares it.
+     * A failure to load is printed once, by the player which tried to load the file.
+     * @param board: Board - The board.
+     * @return boolean - true if the board's database is loaded, false if the board can't be solved.
+     */
+    private boolean loadDatabase(Board board) {
+        int size = board.getSize();
+        int winStreak = board.getWinStreak();
+        if (database != null && database.getSize() == size && database.getWinStreak() == winStreak) {
+            return true;
+        }
+        if (loadFailed || !PositionDatabase.isSolvable(size, winStreak)) {
+            return false;
+        }
+        Path path = directory.resolve(PositionDatabase.fileName(size, winStreak)).toAbsolutePath().normalize();
+        FutureTask<PositionDatabase> load = new FutureTask<>(() -> openOrSolve(path, size, winStreak));
+        FutureTask<PositionDatabase> loading = DATABASES.putIfAbsent(path, load);
+        if (loading == null) {
+            loading = load;
+            load.run();
+        }
+        try {
+            database = loading.get();
+            return true;
+        } catch (ExecutionException e) {
+            if (loading == load) {
+                System.out.printf(LOAD_ERROR_MSG, e.getCause().getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        loadFailed = true;
+        return false;
+    }
+
+    /**
+     * Maps the database file of a board, or solves the board and writes the file if there is no file yet.
+     * The file is written to a temporary file in the same directory, which is deleted if the solve or the
+     * write fails.
+     * @param path: Path - The database's file.
+     * @param size: int - The board's size.
+     * @param winStreak: int - The board's win streak.
+     * @return PositionDatabase - The database.
+     * @throws IOException  Signals that writing or reading the file resulted an exception to be thrown.
+     * @throws IllegalStateException if the board has too many positions to be solved.
+     */
+    private static PositionDatabase openOrSolve(Path path, int size, int winStreak) throws IOException {
+        if (!Files.exists(path)) {
+            Path tempPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), TEMP_FILE_SUFFIX);
+            try {
+                PositionDatabase.solve(size, winStreak).write(tempPath);
+                Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+        }
+        return PositionDatabase.open(path);
+    }
+}
@@ -1,5 +1,6 @@
 /**
  * A single Factory class for a Player interface.
+ * All the searching players which a factory builds share the factory's position cache.
  */
 public class PlayerFactory {
 
@@ -7,6 +8,26 @@ public class PlayerFactory {
     public static final String WHATEVER = "whatever";
     public static final String CLEVER = "clever";
     public static final String GENIUS = "genius";
+    public static final String SEARCH = "search";
+    public static final String MONTE_CARLO = "montecarlo";
+    public static final String PERFECT = "perfect";
+
+    private final PositionCache cache;
+
+    /**
+     * Constructor: Creates a factory with a new position cache.
+     */
+    public PlayerFactory() {
+        this(new PositionCache());
+    }
+
+    /**
+     * Constructor: Creates a factory whose players share a given position cache.
+     * @param cache: PositionCache - The position cache.
+     */
+    public PlayerFactory(PositionCache cache) {
+        this.cache = cache;
+    }
 
     /**
      * Build a player by a given type.
@@ -24,8 +45,30 @@ public class PlayerFactory {
                 return new CleverPlayer();
             case GENIUS:
                 return new GeniusPlayer();
+            case SEARCH:
+                return new SearchPlayer(cache);
+            case MONTE_CARLO:
+                return new MonteCarloPlayer();
+            case PERFECT:
+                return new PerfectPlayer(PerfectPlayer.DEFAULT_DIRECTORY, cache);
             default:
                 return null;
         }
     }
+
+    /**
+     * Build a player by a given type, whose random choices (if any) are determined by a given seed.
+     * @param type: String - The player's type.
+     * @param seed: long - The seed of the player's random choices.
+     * @return a Player instance of given type.
+     */
+    public Player buildPlayer(String type, long seed) {
+        if (type.equalsIgnoreCase(WHATEVER)) {
+            return new WhateverPlayer(seed);
+        }
+        if (type.equalsIgnoreCase(MONTE_CARLO)) {
+            return new MonteCarloPlayer(seed);
+        }
+        return buildPlayer(type);
+    }
 }
@@ -0,0 +1,208 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A round-robin runner, which plays a Tournament between every pair of player types (including every type
+ * against itself) on every board configuration, all in parallel on a single ForkJoinPool.
+ * For every configuration it prints a matrix of the row player's win rate against the column player,
+ * with its 95% (Wilson) confidence interval and the tie rate, and a matrix of each pairing's throughput.
+ * Run with: java PlayerMatrix [rounds] [players] [configurations] [parallelism] [seed]
+ *      where players are comma separated types (e.g. whatever,clever,genius),
+ *      configurations are comma separated sizeXwinStreak pairs (e.g. 3x3,4x3,9x5),
+ *      and a parallelism of 0 uses all cores.
+ */
+class PlayerMatrix {
+    private static final int DEFAULT_ROUNDS = 1000;
+    private static final String[] DEFAULT_PLAYERS = {
+            PlayerFactory.WHATEVER, PlayerFactory.CLEVER, PlayerFactory.GENIUS, PlayerFactory.SEARCH};
+    private static final int[][] DEFAULT_CONFIGS = {{3, 3}, {4, 3}, {4, 4}, {6, 4}, {9, 5}};
+    private static final int ROUNDS_ARG = 0;
+    private static final int PLAYERS_ARG = 1;
+    private static final int CONFIGS_ARG = 2;
+    private static final int PARALLELISM_ARG = 3;
+    private static final int SEED_ARG = 4;
+    private static final int ALL_CORES = 0;
+    private static final String LIST_SEPARATOR = ",";
+    private static final String CONFIG_SEPARATOR = "x";
+    private static final long SEED_MIXER = 0x9E3779B97F4A7C15L;
+    private static final double Z_95 = 1.96;
+    private static final double PERCENT = 100;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String NAME_FORMAT = "%-12s";
+    private static final String CELL_FORMAT = " %24s";
+    private static final String RESULT_CELL_FORMAT = "%.1f%% (%.1f-%.1f) t%.1f%%";
+    private static final String THROUGHPUT_CELL_FORMAT = "%.0f games/s";
+    private static final String CONFIG_HEADLINE = "######### %dx%d, win streak %d, %d rounds per pairing #########%n";
+    private static final String RESULTS_HEADLINE = "Row player's win rate (95%% interval) and tie rate against " +
+            "column player:%n";
+    private static final String THROUGHPUT_HEADLINE = "Games per second of game time:%n";
+    private static final String TOTAL_MSG = "Played %d games in %.2f s (%.0f games/s) on %d threads%n";
+    private static final String WRONG_PLAYER_MSG = "Choose automatic players from: " +
+            "[whatever, clever, genius, search, montecarlo, perfect]";
+
+    private final int rounds;
+    private final String[] players;
+    private final int[][] configs;
+    private final long seed;
+
+    /**
+     * Constructor: Creates a round-robin runner.
+     * @param rounds: int - The number of rounds of every pairing on every configuration.
+     * @param players: String[] - The player types.
+     * @param configs: int[][] - The configurations, as {size, winStreak} pairs.
+     * @param seed: long - The seed of all the Tournaments.
+     */
+    PlayerMatrix(int rounds, String[] players, int[][] configs, long seed) {
+        this.rounds = rounds;
+        this.players = players;
+        this.configs = configs;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the round-robin, with: java PlayerMatrix [rounds] [players] [configurations] [parallelism] [seed]
+     * @param args: Optional rounds, players, configurations, parallelism and seed.
+     */
+    public static void main(String[] args) {
+        int rounds = args.length > ROUNDS_ARG ? Integer.parseInt(args[ROUNDS_ARG]) : DEFAULT_ROUNDS;
+        String[] players = args.length > PLAYERS_ARG ? args[PLAYERS_ARG].split(LIST_SEPARATOR) : DEFAULT_PLAYERS;
+        int[][] configs = args.length > CONFIGS_ARG ? parseConfigs(args[CONFIGS_ARG]) : DEFAULT_CONFIGS;
+        int parallelism = args.length > PARALLELISM_ARG ? Integer.parseInt(args[PARALLELISM_ARG]) : ALL_CORES;
+        long seed = args.length > SEED_ARG ? Long.parseLong(args[SEED_ARG]) : 0;
+        PlayerFactory playerFactory = new PlayerFactory();
+        for (String player : players) {
+            if (player.equalsIgnoreCase(PlayerFactory.HUMAN) || playerFactory.buildPlayer(player) == null) {
+                System.out.println(WRONG_PLAYER_MSG);
+                return;
+            }
+        }
+        new PlayerMatrix(rounds, players, configs, seed).run(parallelism);
+    }
+
+    /**
+     * Plays all the pairings on all the configurations, and prints their matrices.
+     * @param parallelism: int - The number of threads, or ALL_CORES.
+     */
+    void run(int parallelism) {
+        ForkJoinPool pool = parallelism == ALL_CORES ? new ForkJoinPool() : new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        TournamentStatistics[][][] results = new TournamentStatistics[configs.length][players.length][players.length];
+        try {
+            // submit every pairing first, so all of them are played in parallel
+            ForkJoinTask<?>[][][] tasks = new ForkJoinTask<?>[configs.length][players.length][players.length];
+            int cell = 0;
+            for (int config = 0; config < configs.length; config++) {
+                for (int row = 0; row < players.length; row++) {
+                    for (int col = row; col < players.length; col++) {
+                        tasks[config][row][col] = pool.submit(new TournamentTask(
+                                new String[] {players[row], players[col]}, configs[config][0], configs[config][1],
+                                seed ^ (SEED_MIXER * ++cell), 0, rounds, null));
+                    }
+                }
+            }
+            for (int config = 0; config < configs.length; config++) {
+                for (int row = 0; row < players.length; row++) {
+                    for (int col = row; col < players.length; col++) {
+                        results[config][row][col] = (TournamentStatistics) tasks[config][row][col].join();
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+        long games = 0;
+        for (int config = 0; config < configs.length; config++) {
+            printConfig(config, results[config]);
+            for (int row = 0; row < players.length; row++) {
+                for (int col = row; col < players.length; col++) {
+                    games += results[config][row][col].getGames();
+                }
+            }
+        }
+        System.out.printf(TOTAL_MSG, games, seconds, games / seconds, pool.getParallelism());
+    }
+
+    // private methods
+
+    /**
+     * Prints the result and throughput matrices of a single configuration.
+     * @param config: int - The configuration's index.
+     * @param results: TournamentStatistics[][] - The statistics of every pairing, where [row][col] is set
+     *                 for row <= col and its first player is the row's player.
+     */
+    private void printConfig(int config, TournamentStatistics[][] results) {
+        System.out.printf(CONFIG_HEADLINE, configs[config][0], configs[config][0], configs[config][1], rounds);
+        System.out.printf(RESULTS_HEADLINE);
+        printHeader();
+        for (int row = 0; row < players.length; row++) {
+            System.out.printf(NAME_FORMAT, players[row]);
+            for (int col = 0; col < players.length; col++) {
+                TournamentStatistics statistics = row <= col ? results[row][col] : results[col][row];
+                long wins = statistics.getWins(row <= col ? 0 : 1);
+                double games = statistics.getGames();
+                double[] interval = wilsonInterval(wins, statistics.getGames());
+                System.out.printf(CELL_FORMAT, String.format(RESULT_CELL_FORMAT, PERCENT * wins / games,
+                        PERCENT * interval[0], PERCENT * interval[1], PERCENT * statistics.getTies() / games));
+            }
+            System.out.println();
+        }
+        System.out.printf(THROUGHPUT_HEADLINE);
+        printHeader();
+        for (int row = 0; row < players.length; row++) {
+            System.out.printf(NAME_FORMAT, players[row]);
+            for (int col = 0; col < players.length; col++) {
+                TournamentStatistics statistics = row <= col ? results[row][col] : results[col][row];
+                System.out.printf(CELL_FORMAT, String.format(THROUGHPUT_CELL_FORMAT,
+                        statistics.getGames() * NANOS_PER_SECOND / Math.max(statistics.getNanos(), 1)));
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Prints a matrix's header: the column players' names.
+     */
+    private void printHeader() {
+        System.out.printf(NAME_FORMAT, "");
+        for (String player : players) {
+            System.out.printf(CELL_FORMAT, player);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Computes the 95% Wilson score interval of a win rate, which stays within [0, 1] for small
+     * numbers of games and for rates near 0 or 1.
+     * @param wins: long - The number of wins.
+     * @param games: long - The number of games.
+     * @return double[] - {lower bound, upper bound} of the win rate.
+     */
+    private static double[] wilsonInterval(long wins, long games) {
+        if (games == 0) {
+            return new double[] {0, 1};
+        }
+        double rate = (double) wins / games;
+        double z2 = Z_95 * Z_95;
+        double denominator = 1 + z2 / games;
+        double center = (rate + z2 / (2 * games)) / denominator;
+        double halfWidth = Z_95 * Math.sqrt(rate * (1 - rate) / games + z2 / (4.0 * games * games)) / denominator;
+        return new double[] {Math.max(0, center - halfWidth), Math.min(1, center + halfWidth)};
+    }
+
+    /**
+     * Parses comma separated sizeXwinStreak configurations.
+     * @param configs: String - The configurations, e.g. "3x3,4x3,9x5".
+     * @return int[][] - The configurations, as {size, winStreak} pairs.
+     */
+    private static int[][] parseConfigs(String configs) {
+        String[] parts = configs.split(LIST_SEPARATOR);
+        int[][] parsed = new int[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            String[] config = parts[i].toLowerCase().split(CONFIG_SEPARATOR);
+            parsed[i] = new int[] {Integer.parseInt(config[0]), Integer.parseInt(config[1])};
+        }
+        return parsed;
+    }
+}
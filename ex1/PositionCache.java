@@ -0,0 +1,82 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of position values (e.g. best moves), which players may share between games and threads.
+ * Keys are canonical position hashes (Board.getCanonicalHash), so a position shares its entry with all its
+ * rotations and reflections. The cache has a fixed number of slots, and a new entry replaces the entry in
+ * its slot. Slots are read and written without locks: a slot holds its value and its key xor its value,
+ * so a slot torn by concurrent writes doesn't match its key and is read as a miss.
+ */
+public class PositionCache {
+    public static final long MISS = Long.MIN_VALUE;
+    public static final int DEFAULT_BITS = 16;
+    private static final int SLOT_LONGS = 2;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor: Creates a cache with the default number of slots.
+     */
+    public PositionCache() {
+        this(DEFAULT_BITS);
+    }
+
+    /**
+     * Constructor: Creates a cache with a given number of slots.
+     * @param bits: int - The cache holds 2^bits slots (16 bytes each).
+     */
+    public PositionCache(int bits) {
+        slots = new AtomicLongArray(SLOT_LONGS << bits);
+        mask = (1 << bits) - 1;
+        for (int slot = 0; slot <= mask; slot++) {
+            slots.set(SLOT_LONGS * slot + 1, MISS);
+        }
+    }
+
+    /**
+     * Gets the value of a position.
+     * @param key: long - The position's canonical hash.
+     * @return long - The position's value, or MISS if it isn't cached.
+     */
+    public long get(long key) {
+        int slot = SLOT_LONGS * ((int) key & mask);
+        long value = slots.get(slot + 1);
+        if ((slots.get(slot) ^ value) == key && value != MISS) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Caches the value of a position, replacing the entry in its slot.
+     * @param key: long - The position's canonical hash.
+     * @param value: long - The position's value, anything but MISS.
+     */
+    public void put(long key, long value) {
+        int slot = SLOT_LONGS * ((int) key & mask);
+        slots.set(slot, key ^ value);
+        slots.set(slot + 1, value);
+    }
+
+    /**
+     * Getter: Gets the number of lookups which found their position.
+     * @return long - The number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Getter: Gets the number of lookups which didn't find their position.
+     * @return long - The number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
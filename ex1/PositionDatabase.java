@@ -0,0 +1,520 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A database of the game theoretic values of all the positions of a small board, reduced by the
+ * board's 8 symmetries (rotations and reflections).
+ * A database is solved once, by a full minimax enumeration of the positions reachable from the empty
+ * board, and written to a binary file: a header followed by an open addressing hash table, whose
+ * entries pack a position's canonical key with its value. The file is memory mapped for reading,
+ * so a position's value is found by a hash lookup, with no search.
+ * Run with: java PositionDatabase size winStreak [filename]
+ */
+public class PositionDatabase {
+    // values of the side to move: the result, packed with the number of plies until the game ends
+    public static final int NOT_FOUND = -1;
+    public static final int LOSS = 0;
+    public static final int DRAW = 1;
+    public static final int WIN = 2;
+    private static final int RESULT_SHIFT = 6;
+    private static final int PLIES_MASK = (1 << RESULT_SHIFT) - 1;
+    private static final int VALUE_BITS = 8;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+    private static final int MAX_SQUARES = 16;
+    private static final int SYMMETRIES = Board.SYMMETRIES;
+    private static final int MARK_BASE = 3;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MIN_TABLE_BITS = 10;
+    private static final int MAX_TABLE_BITS = 24;
+    private static final int MAGIC = 0x54545044;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+    private static final String FILE_NAME_FORMAT = "positions-%d-%d.db";
+    private static final String NOT_A_DATABASE_MSG = "Not a position database: ";
+    private static final String TOO_LARGE_MSG = "Too many positions to solve a %dx%d board with win streak %d";
+    private static final String SOLVED_MSG = "Solved %d positions of a %dx%d board with win streak %d " +
+            "in %d ms, empty board value: %s in %d plies%n";
+    private static final String USAGE_MSG = "Usage: java PositionDatabase size winStreak [filename]";
+    private static final String[] RESULT_NAMES = {"loss", "draw", "win"};
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final int size;
+    private final int winStreak;
+    private final LongBuffer table;
+    private final int tableBits;
+    private final long[][] weights;
+
+    /**
+     * Constructor: Creates a database over a solved table.
+     * @param size: int - The board's size.
+     * @param winStreak: int - The board's win streak.
+     * @param table: LongBuffer - The table, of 2^tableBits entries.
+     * @param tableBits: int - The table's size in bits.
+     */
+    private PositionDatabase(int size, int winStreak, LongBuffer table, int tableBits) {
+        this.size = size;
+        this.winStreak = winStreak;
+        this.table = table;
+        this.tableBits = tableBits;
+        this.weights = symmetryWeights(size);
+    }
+
+    /**
+     * Solves a database, running with: java PositionDatabase size winStreak [filename]
+     * @param args: The board's size and win streak, and optionally the database's file name.
+     * @throws IOException  Signals that writing the database resulted an exception to be thrown.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(USAGE_MSG);
+            return;
+        }
+        int size = Integer.parseInt(args[0]);
+        int winStreak = Integer.parseInt(args[1]);
+        Path path = args.length > 2 ? Paths.get(args[2]) : Paths.get(fileName(size, winStreak));
+        long start = System.nanoTime();
+        PositionDatabase database = solve(size, winStreak);
+        database.write(path);
+        int value = database.lookup(canonicalKey(database.keysOf(new Board(size, winStreak))));
+        System.out.printf(SOLVED_MSG, database.countPositions(), size, size, winStreak,
+                (System.nanoTime() - start) / NANOS_PER_MILLI, RESULT_NAMES[getResult(value)], getPlies(value));
+    }
+
+    /**
+     * Checks if a board is small enough to be solved: boards of up to 4x4.
+     * Larger boards (even 5x5 with a win streak of 3) have too many reachable positions.
+     * @param size: int - The board's size.
+     * @param winStreak: int - The board's win streak.
+     * @return boolean - true if the board can be solved, false otherwise.
+     */
+    public static boolean isSolvable(int size, int winStreak) {
+        return size * size <= MAX_SQUARES;
+    }
+
+    /**
+     * Gets the default file name of the database of a board.
+     * @param size: int - The board's size.
+     * @param winStreak: int - The board's win streak.
+     * @return String - The file name.
+     */
+    public static String fileName(int size, int winStreak) {
+        return String.format(FILE_NAME_FORMAT, size, winStreak);
+    }
+
+    /**
+     * Solves all the positions reachable from the empty board.
+     * @param size: int - The board's size.
+     * @param winStreak: int - The board's win streak.
+     * @return PositionDatabase - The solved database, in memory.
+     * @throws IllegalStateException if the board has too many positions to be solved.
+     */
+    public static PositionDatabase solve(int size, int winStreak) {
+        Solver solver = new Solver(size, winStreak);
+        solver.solve(Mark.X, size * size);
+        return new PositionDatabase(size, winStreak, LongBuffer.wrap(solver.table), solver.tableBits);
+    }
+
+    /**
+     * Opens a database file, by memory mapping it.
+     * @param path: Path - The database's file.
+     * @return PositionDatabase - The database.
+     * @throws IOException  Signals that reading the file resulted an exception to be thrown,
+     *                      or that the file is not a position database.
+     */
+    public static PositionDatabase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.capacity() < HEADER_BYTES || mapped.getInt() != MAGIC) {
+                throw new IOException(NOT_A_DATABASE_MSG + path);
+            }
+            int size = mapped.getInt();
+            int winStreak = mapped.getInt();
+            int tableBits = mapped.getInt();
+            if (tableBits < MIN_TABLE_BITS || tableBits > MAX_TABLE_BITS ||
+                    mapped.capacity() != HEADER_BYTES + ((long) Long.BYTES << tableBits)) {
+                throw new IOException(NOT_A_DATABASE_MSG + path);
+            }
+            return new PositionDatabase(size, winStreak, mapped.slice().asLongBuffer(), tableBits);
+        }
+    }
+
+    /**
+     * Writes the database to a file.
+     * @param path: Path - The file.
+     * @throws IOException  Signals that writing the file resulted an exception to be thrown.
+     */
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+            buffer.putInt(MAGIC).putInt(size).putInt(winStreak).putInt(tableBits);
+            for (int i = 0; i < table.capacity(); i++) {
+                if (buffer.remaining() < Long.BYTES) {
+                    writeBuffer(channel, buffer);
+                }
+                buffer.putLong(table.get(i));
+            }
+            writeBuffer(channel, buffer);
+        }
+    }
+
+    /**
+     * Getter: Gets the database's board size.
+     * @return int - The board's size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter: Gets the database's board win streak.
+     * @return int - The board's win streak.
+     */
+    public int getWinStreak() {
+        return winStreak;
+    }
+
+    /**
+     * Looks up the value of a position, for its side to move.
+     * @param canonicalKey: long - The position's canonical key.
+     * @return int - The position's value, or NOT_FOUND for a position which is not in the database
+     *               (a position which is over, or is not reachable).
+     */
+    public int lookup(long canonicalKey) {
+        int mask = (1 << tableBits) - 1;
+        for (int index = hash(canonicalKey, tableBits); ; index = (index + 1) & mask) {
+            long entry = table.get(index);
+            if (entry == 0) {
+                return NOT_FOUND;
+            }
+            if (entry >>> VALUE_BITS == canonicalKey + 1) {
+                return (int) (entry & VALUE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Computes the keys of a board's position under all the board's symmetries.
+     * @param board: Board - The board, of the database's size.
+     * @return long[] - The keys, one per symmetry.
+     */
+    public long[] keysOf(Board board) {
+        long[] keys = new long[SYMMETRIES];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                addMark(keys, weights, row * size + col, board.getMark(row, col));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Computes the canonical key of the position after a move, without changing the position's keys.
+     * @param keys: long[] - The keys of the position before the move.
+     * @param square: int - The square of the move (row * size + col).
+     * @param mark: Mark - The mark of the move.
+     * @return long - The canonical key after the move.
+     */
+    public long canonicalKeyAfter(long[] keys, int square, Mark mark) {
+        long digit = markDigit(mark);
+        long canonical = Long.MAX_VALUE;
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            canonical = Math.min(canonical, keys[symmetry] + digit * weights[symmetry][square]);
+        }
+        return canonical;
+    }
+
+    /**
+     * Gets the canonical key of a position: the smallest of its symmetric keys.
+     * @param keys: long[] - The position's keys.
+     * @return long - The canonical key.
+     */
+    public static long canonicalKey(long[] keys) {
+        long canonical = Long.MAX_VALUE;
+        for (long key : keys) {
+            canonical = Math.min(canonical, key);
+        }
+        return canonical;
+    }
+
+    /**
+     * Gets the value of a position for its previous mover, given its value for its side to move.
+     * @param value: int - The position's value for the side to move.
+     * @return int - The value of the move which led to the position.
+     */
+    public static int valueOfMove(int value) {
+        return packValue(WIN - getResult(value), getPlies(value) + 1);
+    }
+
+    /**
+     * Ranks a value, where faster wins rank higher and slower losses rank higher.
+     * @param value: int - The value, or NOT_FOUND (which ranks lowest).
+     * @return int - The value's rank.
+     */
+    public static int rank(int value) {
+        if (value == NOT_FOUND) {
+            return -1;
+        }
+        switch (getResult(value)) {
+            case WIN:
+                return 2 * (PLIES_MASK + 1) - getPlies(value);
+            case DRAW:
+                return PLIES_MASK + 1;
+            default:
+                return getPlies(value);
+        }
+    }
+
+    /**
+     * Packs a result and a number of plies into a value.
+     * @param result: int - WIN, LOSS or DRAW.
+     * @param plies: int - The number of plies until the game ends.
+     * @return int - The value.
+     */
+    public static int packValue(int result, int plies) {
+        return result << RESULT_SHIFT | plies;
+    }
+
+    /**
+     * Gets the result of a value.
+     * @param value: int - The value.
+     * @return int - WIN, LOSS or DRAW.
+     */
+    public static int getResult(int value) {
+        return value >>> RESULT_SHIFT;
+    }
+
+    /**
+     * Gets the number of plies until the game ends of a value.
+     * @param value: int - The value.
+     * @return int - The number of plies.
+     */
+    public static int getPlies(int value) {
+        return value & PLIES_MASK;
+    }
+
+    // private methods
+
+    /**
+     * Counts the positions in the database.
+     * @return int - The number of positions.
+     */
+    private int countPositions() {
+        int count = 0;
+        for (int i = 0; i < table.capacity(); i++) {
+            count += table.get(i) == 0 ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Writes a buffer's content to a channel, and clears it.
+     * @param channel: FileChannel - The channel.
+     * @param buffer: ByteBuffer - The buffer.
+     * @throws IOException  Signals that writing resulted an exception to be thrown.
+     */
+    private static void writeBuffer(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Computes the first table index of a key.
+     * @param key: long - The key.
+     * @param tableBits: int - The table's size in bits.
+     * @return int - The index.
+     */
+    private static int hash(long key, int tableBits) {
+        return (int) ((key * HASH_MULTIPLIER) >>> (Long.SIZE - tableBits));
+    }
+
+    /**
+     * Gets the base 3 digit of a mark: 0 for a blank square, 1 for X and 2 for O.
+     * @param mark: Mark - The mark.
+     * @return int - The digit.
+     */
+    private static int markDigit(Mark mark) {
+        return mark == Mark.X ? 1 : mark == Mark.O ? 2 : 0;
+    }
+
+    /**
+     * Adds a mark on a square to the keys of a position.
+     * @param keys: long[] - The keys, one per symmetry.
+     * @param weights: long[][] - The weights of the squares under every symmetry.
+     * @param square: int - The square.
+     * @param mark: Mark - The mark, or BLANK to leave the keys unchanged.
+     */
+    private static void addMark(long[] keys, long[][] weights, int square, Mark mark) {
+        long digit = markDigit(mark);
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            keys[symmetry] += digit * weights[symmetry][square];
+        }
+    }
+
+    /**
+     * Computes the weight of every square under every symmetry of the board: the power of 3 of the
+     * square's image, so a position's key under a symmetry is the base 3 number of its image.
+     * @param size: int - The board's size.
+     * @return long[][] - The weights, indexed by symmetry and square.
+     */
+    private static long[][] symmetryWeights(int size) {
+        long[] powers = new long[size * size];
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] = i == 0 ? 1 : powers[i - 1] * MARK_BASE;
+        }
+        long[][] weights = new long[SYMMETRIES][size * size];
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            for (int square = 0; square < size * size; square++) {
+                weights[symmetry][square] = powers[Board.symmetricSquare(size, square, symmetry)];
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Solves the positions of a board, by a full minimax enumeration on a Board,
+     * storing every position's value in a growing hash table.
+     */
+    private static final class Solver {
+        private final int size;
+        private final int winStreak;
+        private final Board board;
+        private final long[][] weights;
+        private final long[] keys = new long[SYMMETRIES];
+        private long[] table;
+        private int tableBits = MIN_TABLE_BITS;
+        private int count = 0;
+
+        /**
+         * Constructor: Creates a solver of an empty board.
+         * @param size: int - The board's size.
+         * @param winStreak: int - The board's win streak.
+         */
+        private Solver(int size, int winStreak) {
+            this.size = size;
+            this.winStreak = winStreak;
+            board = new Board(size, winStreak);
+            weights = symmetryWeights(size);
+            table = new long[1 << tableBits];
+        }
+
+        /**
+         * Solves the current position and all the positions reachable from it.
+         * @param mark: Mark - The mark to move.
+         * @param emptyCount: int - The number of blank squares.
+         * @return int - The position's value for the side to move.
+         */
+        private int solve(Mark mark, int emptyCount) {
+            long key = canonicalKey(keys);
+            int value = find(key);
+            if (value != NOT_FOUND) {
+                return value;
+            }
+            Mark nextMark = mark == Mark.X ? Mark.O : Mark.X;
+            for (int square = 0; square < size * size; square++) {
+                if (!board.isBlank(square)) {
+                    continue;
+                }
+                addMark(keys, weights, square, mark);
+                int moveValue;
+                if (board.makeMove(square, mark)) {
+                    moveValue = packValue(WIN, 1);
+                } else if (emptyCount == 1) {
+                    moveValue = packValue(DRAW, 1);
+                } else {
+                    moveValue = valueOfMove(solve(nextMark, emptyCount - 1));
+                }
+                subtractMark(square, mark);
+                board.unmakeMove();
+                if (rank(moveValue) > rank(value)) {
+                    value = moveValue;
+                }
+            }
+            insert(key, value);
+            return value;
+        }
+
+        /**
+         * Removes a mark on a square from the keys of the current position.
+         * @param square: int - The square.
+         * @param mark: Mark - The mark.
+         */
+        private void subtractMark(int square, Mark mark) {
+            long digit = markDigit(mark);
+            for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                keys[symmetry] -= digit * weights[symmetry][square];
+            }
+        }
+
+        /**
+         * Finds the value of a solved position.
+         * @param key: long - The position's canonical key.
+         * @return int - The position's value, or NOT_FOUND.
+         */
+        private int find(long key) {
+            int mask = table.length - 1;
+            for (int index = hash(key, tableBits); table[index] != 0; index = (index + 1) & mask) {
+                if (table[index] >>> VALUE_BITS == key + 1) {
+                    return (int) (table[index] & VALUE_MASK);
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        /**
+         * Inserts a solved position, growing the table when it is half full.
+         * @param key: long - The position's canonical key.
+         * @param value: int - The position's value.
+         */
+        private void insert(long key, int value) {
+            if (2 * (count + 1) > table.length) {
+                grow();
+            }
+            put(table, tableBits, (key + 1) << VALUE_BITS | value);
+            count++;
+        }
+
+        /**
+         * Doubles the table's size.
+         * @throws IllegalStateException if the table is already at its maximal size.
+         */
+        private void grow() {
+            if (tableBits == MAX_TABLE_BITS) {
+                throw new IllegalStateException(String.format(TOO_LARGE_MSG, size, size, winStreak));
+            }
+            long[] oldTable = table;
+            tableBits++;
+            table = new long[1 << tableBits];
+            for (long entry : oldTable) {
+                if (entry != 0) {
+                    put(table, tableBits, entry);
+                }
+            }
+        }
+
+        /**
+         * Puts an entry in the first free slot of its key.
+         * @param table: long[] - The table.
+         * @param tableBits: int - The table's size in bits.
+         * @param entry: long - The entry.
+         */
+        private static void put(long[] table, int tableBits, long entry) {
+            int mask = table.length - 1;
+            int index = hash((entry >>> VALUE_BITS) - 1, tableBits);
+            while (table[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            table[index] = entry;
+        }
+    }
+}
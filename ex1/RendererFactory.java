@@ -5,6 +5,7 @@ public class RendererFactory {
 
     public static final String CONSOLE = "console";
     public static final String NONE = "none";
+    public static final String ANSI = "ansi";
 
     /**
      * Build a renderer by a given type and size.
@@ -19,6 +20,8 @@ public class RendererFactory {
                 return new ConsoleRenderer(size);
             case NONE:
                 return new VoidRenderer();
+            case ANSI:
+                return new ConsoleRenderer(size, true);
             default:
                 return null;
         }
@@ -0,0 +1,426 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A Player which searches the game tree for its best move.
+ * Runs an iterative deepening alpha-beta (negamax) search, with a transposition table keyed by the
+ * board's Zobrist hash, until the search reaches the end of the game or its per move node or time budget
+ * runs out. The search makes and unmakes its moves in place on the game's board (Board.makeMove,
+ * Board.unmakeMove), which keeps the position's hash and win status, and the player only keeps its
+ * evaluation of the position. The board is back in its position when the search ends.
+ * Works for any board size and win streak, which are read from the board.
+ * The best move of every searched position is kept in a PositionCache (in the canonical position's
+ * coordinates), so a position which repeats in later games, or any of its rotations and reflections,
+ * is answered by a cache lookup instead of a search.
+ */
+public class SearchPlayer implements Player {
+    public static final long DEFAULT_NODE_BUDGET = 50_000;
+    public static final long NO_TIME_LIMIT = 0;
+    public static final int DEFAULT_TABLE_BITS = 16;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final int X = 0;
+    private static final int O = 1;
+    private static final int NO_SQUARE = -1;
+    private static final int WIN_SCORE = 1 << 30;
+    private static final int WIN_BOUND = 1 << 29;
+    private static final int INFINITY = WIN_SCORE + 1;
+    private static final int[] WINDOW_WEIGHTS = {0, 1, 4, 16, 64, 256, 1024, 4096, 16384};
+
+    // transposition table entries: key, and data packed as score | depth | flag | move
+    private static final int EXACT = 0;
+    private static final int LOWER_BOUND = 1;
+    private static final int UPPER_BOUND = 2;
+    private static final int SCORE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 24;
+    private static final int FLAG_SHIFT = 22;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int FLAG_MASK = 0x3;
+    private static final int MOVE_MASK = (1 << FLAG_SHIFT) - 1;
+
+    private final long nodeBudget;
+    private final long timeBudgetNanos;
+    private final long[] tableKeys;
+    private final long[] tableData;
+    private final int tableMask;
+    private final PositionCache cache;
+
+    // the searched position
+    private Board board = null;
+    private int size = 0;
+    private int winStreak = 0;
+    private int eval = 0;
+    private int[][] squareWindows = null;
+    private int[][] windowCounts = null;
+    private int[] moveOrder = null;
+
+    // the current search
+    private long nodes = 0;
+    private long deadline = 0;
+    private boolean aborted = false;
+
+    /**
+     * Constructor: Creates a player with the default node budget, no time limit and table size.
+     */
+    public SearchPlayer() {
+        this(DEFAULT_NODE_BUDGET, NO_TIME_LIMIT, DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructor: Creates a player with the default node budget, no time limit and table size,
+     * which shares a given position cache (e.g. with the other players of a Tournament).
+     * @param cache: PositionCache - The cache of best moves.
+     */
+    public SearchPlayer(PositionCache cache) {
+        this(DEFAULT_NODE_BUDGET, NO_TIME_LIMIT, DEFAULT_TABLE_BITS, cache);
+    }
+
+    /**
+     * Constructor: Creates a player with given search budgets and transposition table size,
+     * and its own position cache.
+     * @param nodeBudget: long - The maximal number of searched nodes per move.
+     * @param timeBudgetMillis: long - The maximal search time per move, or NO_TIME_LIMIT.
+     * @param tableBits: int - The transposition table holds 2^tableBits entries (16 bytes each).
+     */
+    public SearchPlayer(long nodeBudget, long timeBudgetMillis, int tableBits) {
+        this(nodeBudget, timeBudgetMillis, tableBits, new PositionCache());
+    }
+
+    /**
+     * Constructor: Creates a player with given search budgets and transposition table size,
+     * which shares a given position cache (e.g. with the players of other threads).
+     * Players sharing a cache should have the same budgets, so they'd choose the same moves.
+     * @param nodeBudget: long - The maximal number of searched nodes per move.
+     * @param timeBudgetMillis: long - The maximal search time per move, or NO_TIME_LIMIT.
+     * @param tableBits: int - The transposition table holds 2^tableBits entries (16 bytes each).
+     * @param cache: PositionCache - The cache of best moves.
+     */
+    public SearchPlayer(long nodeBudget, long timeBudgetMillis, int tableBits, PositionCache cache) {
+        this.cache = cache;
+        this.nodeBudget = nodeBudget;
+        this.timeBudgetNanos = timeBudgetMillis * NANOS_PER_MILLI;
+        tableKeys = new long[1 << tableBits];
+        tableData = new long[1 << tableBits];
+        tableMask = (1 << tableBits) - 1;
+    }
+
+    /**
+     * Override playTurn of Player interface.
+     * Plays a turn of the player according to the player's strategy and to the current board and mark.
+     * Strategy:
+     *      Searches deeper and deeper, until the budget runs out, for the move with the best
+     *      score, where a position's score is how many open lines each player has and how full they are.
+     *      Wins sooner and loses later when it can.
+     *      Plays the cached move of a position (or of a symmetric position) it has already searched.
+     * @param board: Board - The board which the player is playing with.
+     * @param mark: Mark - The mark which represents the player on the board.
+     */
+    @Override
+    public void playTurn(Board board, Mark mark) {
+        int boardSize = board.getSize();
+        long key = board.getCanonicalHash() ^ mark.ordinal();
+        int symmetry = board.getCanonicalSymmetry();
+        long cached = cache.get(key);
+        if (cached != PositionCache.MISS) {
+            int square = Board.symmetricSquare(boardSize, (int) cached, Board.inverseSymmetry(symmetry));
+            if (board.putMark(mark, square / boardSize, square % boardSize)) {
+                return;
+            }
+        }
+        loadPosition(board);
+        int square = searchBestMove(mark == Mark.X ? X : O);
+        this.board = null;
+        cache.put(key, Board.symmetricSquare(size, square, symmetry));
+        board.putMark(mark, square / size, square % size);
+    }
+
+    // private methods
+
+    /**
+     * Loads the board's position into the player's evaluation, and keeps the board for the search.
+     * Structures which only depend on the board's size and win streak are built only when these change.
+     * @param board: Board - The board to load.
+     */
+    private void loadPosition(Board board) {
+        if (board.getSize() != size || board.getWinStreak() != winStreak) {
+            initStructures(board.getSize(), board.getWinStreak());
+        }
+        this.board = board;
+        for (int[] counts : windowCounts) {
+            Arrays.fill(counts, 0);
+        }
+        eval = 0;
+        for (int square = 0; square < size * size; square++) {
+            Mark mark = board.getMark(square / size, square % size);
+            if (mark != Mark.BLANK) {
+                addToWindows(square, mark == Mark.X ? X : O);
+            }
+        }
+    }
+
+    /**
+     * Builds the structures of a given board size and win streak:
+     * the windows (every winStreak long line on the board) each square is in, and the move order.
+     * @param size: int - The board's size.
+     * @param winStreak: int - The game's win streak.
+     */
+    private void initStructures(int size, int winStreak) {
+        this.size = size;
+        this.winStreak = winStreak;
+        // a window is at most a whole line of the board
+        int windowLength = Math.min(winStreak, size);
+        int squares = size * size;
+        Arrays.fill(tableKeys, 0);
+        Arrays.fill(tableData, 0);
+
+        // collect the windows of every direction: {rowDir, colDir}
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        int[] windowsPerSquare = new int[squares];
+        List<int[]> windows = new ArrayList<>();
+        for (int[] direction : directions) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int endRow = row + direction[0] * (windowLength - 1);
+                    int endCol = col + direction[1] * (windowLength - 1);
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    int[] window = new int[windowLength];
+                    for (int i = 0; i < windowLength; i++) {
+                        window[i] = (row + direction[0] * i) * size + col + direction[1] * i;
+                        windowsPerSquare[window[i]]++;
+                    }
+                    windows.add(window);
+                }
+            }
+        }
+        squareWindows = new int[squares][];
+        for (int square = 0; square < squares; square++) {
+            squareWindows[square] = new int[windowsPerSquare[square]];
+            windowsPerSquare[square] = 0;
+        }
+        for (int w = 0; w < windows.size(); w++) {
+            for (int square : windows.get(w)) {
+                squareWindows[square][windowsPerSquare[square]++] = w;
+            }
+        }
+        windowCounts = new int[][] {new int[windows.size()], new int[windows.size()]};
+
+        // squares which are in more windows are tried first
+        moveOrder = IntStream.range(0, squares).boxed()
+                .sorted((a, b) -> squareWindows[b].length - squareWindows[a].length)
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Searches for the best move of a given side, deepening the search until the budget runs out.
+     * @param side: int - X or O.
+     * @return int - The best square found.
+     */
+    private int searchBestMove(int side) {
+        nodes = 0;
+        aborted = false;
+        deadline = System.nanoTime() + timeBudgetNanos;
+        int bestSquare = NO_SQUARE;
+        for (int depth = 1; depth <= board.getFreeCount(); depth++) {
+            int[] result = searchRoot(side, depth, bestSquare);
+            if (aborted && bestSquare != NO_SQUARE) {
+                break;
+            }
+            bestSquare = result[0];
+            if (aborted || Math.abs(result[1]) > WIN_BOUND) {
+                break;
+            }
+        }
+        for (int i = 0; bestSquare == NO_SQUARE; i++) {   // the budget ran out before any move was scored
+            if (board.isBlank(moveOrder[i])) {
+                bestSquare = moveOrder[i];
+            }
+        }
+        return bestSquare;
+    }
+
+    /**
+     * Searches all moves of the root position to a given depth.
+     * @param side: int - The side to move.
+     * @param depth: int - The search depth.
+     * @param firstSquare: int - A square to search first (the previous iteration's best), or NO_SQUARE.
+     * @return int[] - {best square, its score}.
+     */
+    private int[] searchRoot(int side, int depth, int firstSquare) {
+        int alpha = -INFINITY;
+        int bestSquare = NO_SQUARE;
+        for (int i = -1; i < moveOrder.length; i++) {
+            int square = i < 0 ? firstSquare : moveOrder[i];
+            if (square == NO_SQUARE || !board.isBlank(square) || (i >= 0 && square == firstSquare)) {
+                continue;
+            }
+            int score = scoreMove(square, side, depth, alpha, INFINITY, 0);
+            if (aborted) {
+                break;
+            }
+            if (score > alpha || bestSquare == NO_SQUARE) {
+                alpha = score;
+                bestSquare = square;
+            }
+        }
+        return new int[] {bestSquare, alpha};
+    }
+
+    /**
+     * Plays a move, scores it by searching the position after it, and takes it back.
+     * @param square: int - The square of the move.
+     * @param side: int - The side playing the move.
+     * @param depth: int - The remaining depth, including this move.
+     * @param alpha: int - The alpha bound of the position before the move.
+     * @param beta: int - The beta bound of the position before the move.
+     * @param ply: int - The distance of the position before the move from the root.
+     * @return int - The score of the move from the side's point of view.
+     */
+    private int scoreMove(int square, int side, int depth, int alpha, int beta, int ply) {
+        int score = makeMove(square, side) ?
+                WIN_SCORE - ply - 1 : -negamax(1 - side, depth - 1, -beta, -alpha, ply + 1);
+        unmakeMove(square, side);
+        return score;
+    }
+
+    /**
+     * Alpha-beta negamax search of the current position.
+     * @param side: int - The side to move.
+     * @param depth: int - The remaining depth.
+     * @param alpha: int - Lower bound of the wanted score.
+     * @param beta: int - Upper bound of the wanted score.
+     * @param ply: int - The distance from the root.
+     * @return int - The position's score from the side's point of view.
+     */
+    private int negamax(int side, int depth, int alpha, int beta, int ply) {
+        if (++nodes >= nodeBudget ||
+                (timeBudgetNanos != NO_TIME_LIMIT && nodes % TIME_CHECK_INTERVAL == 0 &&
+                        System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted || board.getFreeCount() == 0) {
+            return 0;
+        }
+        if (depth == 0) {
+            return side == X ? eval : -eval;
+        }
+
+        // probe the transposition table
+        long hash = board.getHash();
+        int index = (int) hash & tableMask;
+        int tableSquare = NO_SQUARE;
+        if (tableKeys[index] == hash && tableData[index] != 0) {
+            long data = tableData[index];
+            tableSquare = (int) (data & MOVE_MASK) - 1;
+            int score = fromTableScore((int) (data >> SCORE_SHIFT), ply);
+            int flag = (int) (data >>> FLAG_SHIFT) & FLAG_MASK;
+            if (((int) (data >>> DEPTH_SHIFT) & BYTE_MASK) >= depth &&
+                    (flag == EXACT || (flag == LOWER_BOUND && score >= beta) ||
+                            (flag == UPPER_BOUND && score <= alpha))) {
+                return score;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestSquare = NO_SQUARE;
+        for (int i = -1; i < moveOrder.length && best < beta; i++) {
+            int square = i < 0 ? tableSquare : moveOrder[i];
+            if (square == NO_SQUARE || !board.isBlank(square) || (i >= 0 && square == tableSquare)) {
+                continue;
+            }
+            int score = scoreMove(square, side, depth, alpha, beta, ply);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestSquare = square;
+                alpha = Math.max(alpha, score);
+            }
+        }
+        int flag = best <= originalAlpha ? UPPER_BOUND : best >= beta ? LOWER_BOUND : EXACT;
+        tableKeys[index] = hash;
+        tableData[index] = ((long) toTableScore(best, ply) << SCORE_SHIFT) |
+                ((long) Math.min(depth, BYTE_MASK) << DEPTH_SHIFT) | ((long) flag << FLAG_SHIFT) |
+                (bestSquare + 1);
+        return best;
+    }
+
+    /**
+     * Converts a score to be stored in the table: win scores are stored as distance from the position.
+     * @param score: int - The score, as distance from the root.
+     * @param ply: int - The position's distance from the root.
+     * @return int - The score to store.
+     */
+    private static int toTableScore(int score, int ply) {
+        return score > WIN_BOUND ? score + ply : score < -WIN_BOUND ? score - ply : score;
+    }
+
+    /**
+     * Converts a score stored in the table back to a score as distance from the root.
+     * @param score: int - The stored score.
+     * @param ply: int - The position's distance from the root.
+     * @return int - The score.
+     */
+    private static int fromTableScore(int score, int ply) {
+        return score > WIN_BOUND ? score - ply : score < -WIN_BOUND ? score + ply : score;
+    }
+
+    /**
+     * Makes a side's move on the board, and adds it to the windows counts and the evaluation.
+     * @param square: int - The square.
+     * @param side: int - X or O.
+     * @return boolean - true if the move completes a win streak, false otherwise.
+     */
+    private boolean makeMove(int square, int side) {
+        addToWindows(square, side);
+        return board.makeMove(square, side == X ? Mark.X : Mark.O);
+    }
+
+    /**
+     * Unmakes a side's move (the last move) on the board, reverting makeMove.
+     * @param square: int - The square.
+     * @param side: int - X or O.
+     */
+    private void unmakeMove(int square, int side) {
+        board.unmakeMove();
+        for (int window : squareWindows[square]) {
+            eval -= windowScore(window);
+            windowCounts[side][window]--;
+            eval += windowScore(window);
+        }
+    }
+
+    /**
+     * Adds a side's mark on a square to the windows counts and the evaluation.
+     * @param square: int - The square.
+     * @param side: int - X or O.
+     */
+    private void addToWindows(int square, int side) {
+        for (int window : squareWindows[square]) {
+            eval -= windowScore(window);
+            windowCounts[side][window]++;
+            eval += windowScore(window);
+        }
+    }
+
+    /**
+     * Scores a window from X's point of view: a window which only one side has marks in is worth
+     * more the more marks it has, and a window both sides have marks in is worth nothing.
+     * @param window: int - The window.
+     * @return int - The window's score.
+     */
+    private int windowScore(int window) {
+        int xCount = windowCounts[X][window];
+        int oCount = windowCounts[O][window];
+        if (xCount > 0 && oCount > 0) {
+            return 0;
+        }
+        return WINDOW_WEIGHTS[Math.min(xCount, WINDOW_WEIGHTS.length - 1)] -
+                WINDOW_WEIGHTS[Math.min(oCount, WINDOW_WEIGHTS.length - 1)];
+    }
+}
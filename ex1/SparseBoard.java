@@ -0,0 +1,362 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A Board for large boards (e.g. 1000x1000 with a win streak of 5), whose memory grows with the number
+ * of moves played and not with the board's size.
+ * The marked squares are kept in an open addressing hash table from square (row * size + col) to Mark,
+ * and the runs through a new mark are counted by looking its neighbours up, up to the win streak in
+ * each direction, so win detection stays local to the last move.
+ * Blank squares are found by sampling and short scans, which are fast as long as the board is sparse.
+ */
+public class SparseBoard extends Board {
+    /** The largest size whose squares still fit in an int. */
+    public static final int MAX_SIZE = 46340;
+    private static final int EMPTY = -1;
+    private static final int MIN_TABLE_BITS = 6;
+    private static final int MIN_MOVES = 16;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int RANDOM_TRIES = 64;
+    private static final int[] ROW_STEPS = {0, 1, 1, 1};
+    private static final int[] COL_STEPS = {1, 0, 1, -1};
+    private static final String SIZE_ERROR_MSG = "Sparse board size must be between 1 and " + MAX_SIZE;
+
+    // data members
+    private int[] tableSquares = null;
+    private Mark[] tableMarks = null;
+    private int tableBits = MIN_TABLE_BITS;
+    private int[] moves = new int[MIN_MOVES];
+    private int[] moveRuns = new int[MIN_MOVES];
+    private int moveCount = 0;
+
+    /**
+     * SparseBoard Constructor, initiates a blank SparseBoard instance of given size,
+     * for a game with a given win streak.
+     * @param size: int - The Board's instance size (size*size), up to MAX_SIZE.
+     * @param winStreak: int - The length of a win streak in the Board's game.
+     */
+    SparseBoard(int size, int winStreak) {
+        super(size, winStreak, false);
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(SIZE_ERROR_MSG);
+        }
+        tableSquares = new int[1 << tableBits];
+        tableMarks = new Mark[1 << tableBits];
+        Arrays.fill(tableSquares, EMPTY);
+    }
+
+    // public methods
+
+    /**
+     * Puts a given Mark on the instance's board.
+     * @param mark: Mark - The mark to put.
+     * @param row: int - The row of the mark to be put in,
+     * @param col: int - The column of the mark to be put in,
+     * @return true: if action was successful and board was updated accordingly. false: otherwise.
+     */
+    @Override
+    public boolean putMark(Mark mark, int row, int col) {
+        if (isOutOfRange(row, col) || mark == Mark.BLANK) {
+            return false;
+        }
+        int square = row * getSize() + col;
+        if (findSlot(square) != EMPTY) {
+            return false;
+        }
+        insert(square, mark);
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+            moveRuns = Arrays.copyOf(moveRuns, 2 * moveRuns.length);
+        }
+        int longest = 0;
+        for (int direction = 0; direction < ROW_STEPS.length; direction++) {
+            int length = 1 + countRun(mark, row, col, ROW_STEPS[direction], COL_STEPS[direction]) +
+                    countRun(mark, row, col, -ROW_STEPS[direction], -COL_STEPS[direction]);
+            longest = Math.max(longest, length);
+        }
+        moveRuns[moveCount] = longest;
+        updateHashes(square, mark);
+        moves[moveCount++] = square;
+        return true;
+    }
+
+    /**
+     * Undoes the last move played on the board, removing its mark.
+     * @return true: if a move was undone. false: if the board is blank.
+     */
+    @Override
+    public boolean undoLastMove() {
+        if (moveCount == 0) {
+            return false;
+        }
+        int slot = findSlot(moves[--moveCount]);
+        updateHashes(moves[moveCount], tableMarks[slot]);
+        remove(slot);
+        return true;
+    }
+
+    /**
+     * Checks if a square is blank, for searching.
+     * @param square: int - The square (row * size + col).
+     * @return true: if the square is in range and blank. false: otherwise.
+     */
+    @Override
+    public boolean isBlank(int square) {
+        return square >= 0 && square < getSize() * getSize() && findSlot(square) == EMPTY;
+    }
+
+    /**
+     * Getter: Gets the length of the longest run of same Mark squares through the last move,
+     * in any direction. Runs are only counted up to the win streak on each side of the move.
+     * @return int: The longest run's length, or 0 if the board is blank.
+     */
+    @Override
+    public int getLastRunLength() {
+        return moveCount == 0 ? 0 : moveRuns[moveCount - 1];
+    }
+
+    /**
+     * Getter: Gets the number of moves played on the board.
+     * @return int: The number of moves played.
+     */
+    @Override
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Getter: Gets the row of a move from the board's move log.
+     * @param index: int - The index of the move, 0 for the first move played.
+     * @return int: The row of the move, or NO_MOVE if there is no such move.
+     */
+    @Override
+    public int getMoveRow(int index) {
+        return isLoggedMove(index) ? moves[index] / getSize() : NO_MOVE;
+    }
+
+    /**
+     * Getter: Gets the column of a move from the board's move log.
+     * @param index: int - The index of the move, 0 for the first move played.
+     * @return int: The column of the move, or NO_MOVE if there is no such move.
+     */
+    @Override
+    public int getMoveCol(int index) {
+        return isLoggedMove(index) ? moves[index] % getSize() : NO_MOVE;
+    }
+
+    /**
+     * Getter: Gets the row of the last move played on the board.
+     * @return int: The row of the last move, or NO_MOVE if the board is blank.
+     */
+    @Override
+    public int getLastRow() {
+        return getMoveRow(moveCount - 1);
+    }
+
+    /**
+     * Getter: Gets the column of the last move played on the board.
+     * @return int: The column of the last move, or NO_MOVE if the board is blank.
+     */
+    @Override
+    public int getLastCol() {
+        return getMoveCol(moveCount - 1);
+    }
+
+    /**
+     * Getter: Gets the number of blank squares on the board.
+     * @return int: The number of blank squares.
+     */
+    @Override
+    public int getFreeCount() {
+        return getSize() * getSize() - moveCount;
+    }
+
+    /**
+     * Getter: Gets a random blank square. Samples random squares, which takes a few tries while the
+     * board is sparse, and scans from a random square after too many tries.
+     * @param random: Random - The random generator to choose by.
+     * @return int: The square (row * size + col), or NO_MOVE if the board is full.
+     */
+    @Override
+    public int getRandomFreeSquare(Random random) {
+        int squares = getSize() * getSize();
+        int square = NO_MOVE;
+        for (int i = 0; i < RANDOM_TRIES; i++) {
+            square = random.nextInt(squares);
+            if (findSlot(square) == EMPTY) {
+                return square;
+            }
+        }
+        int next = getNextFreeSquare(square);
+        return next != NO_MOVE ? next : getNextFreeSquare(0);
+    }
+
+    /**
+     * Getter: Gets the first blank square from a given square onwards.
+     * @param square: int - The square (row * size + col) to start from.
+     * @return int: The first blank square which is not before the given square, or NO_MOVE if there is none.
+     */
+    @Override
+    public int getNextFreeSquare(int square) {
+        int squares = getSize() * getSize();
+        for (square = Math.max(square, 0); square < squares; square++) {
+            if (findSlot(square) == EMPTY) {
+                return square;
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Getter: Gets the last blank square up to a given square.
+     * @param square: int - The square (row * size + col) to start from.
+     * @return int: The last blank square which is not after the given square, or NO_MOVE if there is none.
+     */
+    @Override
+    public int getPrevFreeSquare(int square) {
+        for (square = Math.min(square, getSize() * getSize() - 1); square >= 0; square--) {
+            if (findSlot(square) == EMPTY) {
+                return square;
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Getter: Gets the Mark on given (row, column).
+     * @param row: int - The requested row.
+     * @param col: int - The requested column.
+     * @return Mark: the Mark on (row, col)
+     */
+    @Override
+    public Mark getMark(int row, int col) {
+        if (isOutOfRange(row, col)) {
+            return Mark.BLANK;
+        }
+        int slot = findSlot(row * getSize() + col);
+        return slot == EMPTY ? Mark.BLANK : tableMarks[slot];
+    }
+
+    // private methods
+
+    /**
+     * Counts the squares of a Mark after a given square in a given direction, up to the win streak.
+     * @param mark: Mark - The counted Mark.
+     * @param row: int - The row of the square.
+     * @param col: int - The column of the square.
+     * @param rowStep: int - The direction's row step.
+     * @param colStep: int - The direction's column step.
+     * @return int - The number of consecutive squares of the Mark.
+     */
+    private int countRun(Mark mark, int row, int col, int rowStep, int colStep) {
+        int count = 0;
+        for (row += rowStep, col += colStep; count < getWinStreak() && getMark(row, col) == mark;
+             row += rowStep, col += colStep) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Computes the first table slot of a square.
+     * @param square: int - The square.
+     * @return int - The slot.
+     */
+    private int hash(int square) {
+        return (int) ((square * HASH_MULTIPLIER) >>> (Long.SIZE - tableBits));
+    }
+
+    /**
+     * Finds the table slot of a marked square.
+     * @param square: int - The square.
+     * @return int - The square's slot, or EMPTY if the square is blank.
+     */
+    private int findSlot(int square) {
+        int mask = tableSquares.length - 1;
+        for (int slot = hash(square); tableSquares[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (tableSquares[slot] == square) {
+                return slot;
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Inserts a newly marked square into the table, doubling the table when it is half full.
+     * @param square: int - The square.
+     * @param mark: Mark - The square's Mark.
+     */
+    private void insert(int square, Mark mark) {
+        if (2 * (moveCount + 1) > tableSquares.length) {
+            int[] oldSquares = tableSquares;
+            Mark[] oldMarks = tableMarks;
+            tableBits++;
+            tableSquares = new int[1 << tableBits];
+            tableMarks = new Mark[1 << tableBits];
+            Arrays.fill(tableSquares, EMPTY);
+            for (int slot = 0; slot < oldSquares.length; slot++) {
+                if (oldSquares[slot] != EMPTY) {
+                    put(oldSquares[slot], oldMarks[slot]);
+                }
+            }
+        }
+        put(square, mark);
+    }
+
+    /**
+     * Puts a square in the first free slot from its hash.
+     * @param square: int - The square.
+     * @param mark: Mark - The square's Mark.
+     */
+    private void put(int square, Mark mark) {
+        int mask = tableSquares.length - 1;
+        int slot = hash(square);
+        while (tableSquares[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        tableSquares[slot] = square;
+        tableMarks[slot] = mark;
+    }
+
+    /**
+     * Removes a square from the table, shifting back the squares after it which would no longer be
+     * found past the freed slot, so lookups never need tombstones.
+     * @param slot: int - The slot of the removed square.
+     */
+    private void remove(int slot) {
+        int mask = tableSquares.length - 1;
+        tableSquares[slot] = EMPTY;
+        tableMarks[slot] = null;
+        for (int next = (slot + 1) & mask; tableSquares[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(tableSquares[next]);
+            // the square may move back to the free slot unless its home is cyclically in (slot, next]
+            boolean homeBetween = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+            if (!homeBetween) {
+                tableSquares[slot] = tableSquares[next];
+                tableMarks[slot] = tableMarks[next];
+                tableSquares[next] = EMPTY;
+                tableMarks[next] = null;
+                slot = next;
+            }
+        }
+    }
+
+    /**
+     * Checks if a given index is an index of a move in the move log.
+     * @param index: int - The checked index.
+     * @return true: if a move with the given index was played. false: otherwise.
+     */
+    private boolean isLoggedMove(int index) {
+        return index >= 0 && index < moveCount;
+    }
+
+    /**
+     * Checks if given row and column are out of board's range
+     * @param row: int - The check row.
+     * @param col: int - The check column.
+     * @return: true: if row or column are out of range. false: otherwise.
+     */
+    private boolean isOutOfRange(int row, int col) {
+        return row < 0 || row >= getSize() || col < 0 || col >= getSize();
+    }
+}
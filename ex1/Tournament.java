@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * A Tournament class which initiates the Tournament and runs the whole program.
  * Includes and runs the main function.
@@ -10,15 +13,24 @@ public class Tournament {
     private static final int RENDER_TARGET_ARG = 3;
     private static final int PLAYER1_ARG = 4;
     private static final int PLAYER2_ARG = 5;
+    private static final int PARALLELISM_ARG = 6;
+    private static final int SEED_ARG = 7;
+    private static final int RESULTS_FILE_ARG = 8;
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final int ALL_CORES = 0;
     public static final String WRONG_PLAYER_MSG = "Choose a player, and start again";
-    public static final String PLAYER_TYPES_MSG = "The players: [human, clever, whatever, genius]";
+    public static final String PLAYER_TYPES_MSG = "The players: [human, clever, whatever, genius, search, montecarlo, perfect]";
     public static final String RESULTS_HEADLINE = "######### Results #########";
     public static final String PLAYER_2_SCORE_MSG = "Player 2, %s won: %d rounds%n";
     public static final String TIES_MSG = "Ties: %d%n";
+    public static final String SEQUENTIAL_MSG = "Human players and console rendering are played sequentially";
+    public static final String RESULTS_FILE_ERROR_MSG = "Could not open results file: %s%n";
 
     private int rounds = 0;
     private Renderer renderer = null;
     private Player[] players = new Player[] {null, null};
+    private GameResultSink resultSink = null;
 
     // constructor
     /**
@@ -34,6 +46,19 @@ public class Tournament {
         System.arraycopy(players, 0, this.players, 0, players.length);
     }
 
+    /**
+     * A constructor for a Tournament class instance, which streams a record of every game to a given sink.
+     * Sets given arguments as data members of the instance.
+     * @param rounds: int - Number of round in the Tournament.
+     * @param renderer: Renderer - The renderer of the Tournament's board.
+     * @param players: Player[] - The two players of the Tournament.
+     * @param resultSink: GameResultSink - The sink of the games' records, closed at the Tournament's end.
+     */
+    Tournament(int rounds, Renderer renderer, Player[] players, GameResultSink resultSink) {
+        this(rounds, renderer, players);
+        this.resultSink = resultSink;
+    }
+
     // public methods
 
     /**
@@ -43,12 +68,47 @@ public class Tournament {
      * @param playerNames: String[] - An array of all players names.
      */
     public void playTournament(int size, int winStreak, String[] playerNames) {
-        int[] score = new int[] {0, 0};
-        int ties = 0;
+        printResults(playRounds(size, winStreak, playerNames));
+    }
+
+    /**
+     * Plays all the Tournament's rounds one after another on the calling thread, without printing the results.
+     * @param size: int - The size of the Tournament's board.
+     * @param winStreak: int - The size of the Win Streak to win a game in the Tournament.
+     * @param playerNames: String[] - An array of all players names.
+     * @return TournamentStatistics - The statistics of the Tournament's games.
+     */
+    TournamentStatistics playRounds(int size, int winStreak, String[] playerNames) {
+        TournamentStatistics statistics = new TournamentStatistics(playerNames);
         for (int round = 0; round < rounds; round++) {
-            ties = runGame(players, size, winStreak, renderer, score, ties, round);
+            runGame(players, playerNames, size, winStreak, renderer, round, statistics, resultSink);
+        }
+        statistics.addPlayouts(players);
+        return statistics;
+    }
+
+    /**
+     * Runs a whole Tournament by its game preferences and round count, in parallel on a ForkJoinPool.
+     * Every thread plays its rounds with its own players, built by the players names,
+     * so the Tournament's players and renderer are not used.
+     * The results are determined by the given seed, no matter how many threads are used.
+     * @param size: int - The size of the Tournament's board.
+     * @param winStreak: int - The size of the Win Streak to win a game in the Tournament.
+     * @param playerNames: String[] - An array of all players names.
+     * @param parallelism: int - The number of threads to use, or 0 to use all available cores.
+     * @param seed: long - The seed of the players random choices.
+     */
+    public void playParallelTournament(int size, int winStreak, String[] playerNames,
+                                       int parallelism, long seed) {
+        ForkJoinPool pool = parallelism == ALL_CORES ? new ForkJoinPool() : new ForkJoinPool(parallelism);
+        TournamentStatistics statistics;
+        try {
+            statistics = pool.invoke(
+                    new TournamentTask(playerNames, size, winStreak, seed, 0, rounds, resultSink));
+        } finally {
+            pool.shutdown();
         }
-        printResults(playerNames, score, ties);
+        printResults(statistics);
     }
 
     /**
@@ -71,12 +131,31 @@ public class Tournament {
         int size = Integer.parseInt(args[SIZE_ARG]);
         int winStreak = Integer.parseInt(args[WIN_STREAK_ARG]);
         RendererFactory rendererFactory = new RendererFactory();
+        String[] playerNames = new String[] {args[PLAYER1_ARG], args[PLAYER2_ARG]};
+        GameResultSink resultSink = null;
+        if (args.length > RESULTS_FILE_ARG) {
+            try {
+                resultSink = buildResultSink(args[RESULTS_FILE_ARG], playerNames, size, winStreak);
+            } catch (IOException e) {
+                System.out.printf(RESULTS_FILE_ERROR_MSG, args[RESULTS_FILE_ARG]);
+                return;
+            }
+        }
         Tournament tournament = new Tournament(Integer.parseInt(args[ROUND_COUNT_ARG]),
                 rendererFactory.buildRenderer(args[RENDER_TARGET_ARG], size),
-                players);
+                players, resultSink);
 
         // run tournament
-        tournament.playTournament(size, winStreak, new String[] {args[PLAYER1_ARG], args[PLAYER2_ARG]});
+        if (args.length <= PARALLELISM_ARG) {
+            tournament.playTournament(size, winStreak, playerNames);
+        } else if (!canRunInParallel(args)) {
+            System.out.println(SEQUENTIAL_MSG);
+            tournament.playTournament(size, winStreak, playerNames);
+        } else {
+            long seed = args.length > SEED_ARG ? Long.parseLong(args[SEED_ARG]) : 0;
+            tournament.playParallelTournament(size, winStreak, playerNames,
+                    Integer.parseInt(args[PARALLELISM_ARG]), seed);
+        }
     }
 
     // private methods
@@ -91,45 +170,85 @@ public class Tournament {
         return (!name.equalsIgnoreCase(("human")) &&
                 !name.equalsIgnoreCase(("whatever")) &&
                 !name.equalsIgnoreCase(("clever")) &&
-                !name.equalsIgnoreCase(("genius")));
+                !name.equalsIgnoreCase(("genius")) &&
+                !name.equalsIgnoreCase(("search")) &&
+                !name.equalsIgnoreCase(("montecarlo")) &&
+                !name.equalsIgnoreCase(("perfect")));
+    }
+
+    /**
+     * Checks if a Tournament can be played in parallel: only when nothing is rendered and no human plays.
+     * @param args: Given program arguments.
+     * @return boolean: true - if the Tournament can be played in parallel, false - otherwise.
+     */
+    private static boolean canRunInParallel(String[] args) {
+        return args[RENDER_TARGET_ARG].equalsIgnoreCase(RendererFactory.NONE) &&
+                !args[PLAYER1_ARG].equalsIgnoreCase(PlayerFactory.HUMAN) &&
+                !args[PLAYER2_ARG].equalsIgnoreCase(PlayerFactory.HUMAN);
+    }
+
+    /**
+     * Builds a sink which writes the games' records to a given file: CSV for a '.csv' file,
+     * compact binary records with every game's moves for a '.bin' file, JSON Lines otherwise.
+     * @param filename: String - The file's path.
+     * @param playerNames: String[] - An array of all players names.
+     * @param size: int - The Tournament's board's size.
+     * @param winStreak: int - The Tournament's WinStreak's size.
+     * @return GameResultSink - The file's sink.
+     * @throws IOException  Signals that opening the given file resulted an exception to be thrown.
+     */
+    private static GameResultSink buildResultSink(String filename, String[] playerNames, int size, int winStreak)
+            throws IOException {
+        if (filename.toLowerCase().endsWith(CSV_EXTENSION)) {
+            return new CsvResultSink(filename);
+        }
+        if (filename.toLowerCase().endsWith(BINARY_EXTENSION)) {
+            return new BinaryResultSink(filename, playerNames, size, winStreak);
+        }
+        return new JsonLinesResultSink(filename);
     }
 
     /**
-     * Runs a single game in the Tournament.
+     * Runs a single game in the Tournament, and gives its record to the Tournament's statistics and sink.
      * @param players: Player[] - An array of the Tournament's players.
+     * @param playerNames: String[] - An array of all players names, indices match 'players' array.
      * @param size: int - The Tournament's board's size.
      * @param winStreak: int - The Tournament's WinStreak's size.
      * @param renderer: Renderer:  Tournament's Renderer.
-     * @param score: int[] - The current Tournament score, indices match 'players' array.
-     * @param ties: int - A count of the ties in the Tournament.
      * @param round: int - The round count.
-     * @return int - The updated ties count of the tournament.
+     * @param statistics: TournamentStatistics - The statistics of the Tournament's games.
+     * @param resultSink: GameResultSink - The sink of the games' records, or null.
      */
-    private static int runGame(Player[] players, int size, int winStreak, Renderer renderer,
-                               int[] score, int ties, int round) {
-        Game game = new Game(players[round % players.length], players[(round + 1) % players.length],
-                size, winStreak, renderer);
+    static void runGame(Player[] players, String[] playerNames, int size, int winStreak, Renderer renderer,
+                        int round, TournamentStatistics statistics, GameResultSink resultSink) {
+        int xPlayer = round % players.length;
+        int oPlayer = (round + 1) % players.length;
+        Game game = new Game(players[xPlayer], players[oPlayer], size, winStreak, renderer);
+        long start = System.nanoTime();
         Mark winner = game.run();
-        if (winner == Mark.BLANK) {
-            ties++;
-        } else if (winner == Mark.X) {
-            score[round % score.length]++;
-        } else {
-            score[(round + 1) % score.length]++;
+        GameRecord record = new GameRecord(round, playerNames[xPlayer], playerNames[oPlayer],
+                Game.FIRST_MARK, winner, game.getMoves(), System.nanoTime() - start);
+        statistics.accept(record);
+        if (resultSink != null) {
+            resultSink.accept(record);
         }
-        return ties;
     }
 
     /**
-     * Prints the Tournament's results
-     * @param playerNames: String[] - An array of all players names.
-     * @param score: int[] - The current Tournament score.
-     * @param ties: int - A count of the ties in the Tournament.
+     * Prints the Tournament's results, and closes the Tournament's sink.
+     * If the Tournament has a sink, prints the Tournament's statistics as well.
+     * @param statistics: TournamentStatistics - The statistics of the Tournament's games.
      */
-    private static void printResults(String[] playerNames, int[] score, int ties) {
+    private void printResults(TournamentStatistics statistics) {
+        String[] playerNames = statistics.getPlayerNames();
         System.out.println(RESULTS_HEADLINE);
-        System.out.print(String.format(PLAYER_1_SCORE_MSG, playerNames[0], score[0]));
-        System.out.printf(String.format(PLAYER_2_SCORE_MSG, playerNames[1], score[1]));
-        System.out.printf(String.format(TIES_MSG, ties));
+        System.out.print(String.format(PLAYER_1_SCORE_MSG, playerNames[0], statistics.getWins(0)));
+        System.out.printf(String.format(PLAYER_2_SCORE_MSG, playerNames[1], statistics.getWins(1)));
+        System.out.printf(String.format(TIES_MSG, statistics.getTies()));
+        statistics.printPlayouts();
+        if (resultSink != null) {
+            resultSink.close();
+            statistics.printSummary();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregates the results of a Tournament's games as they are played: wins of each player and each Mark,
+ * ties, a histogram of the games' move counts, a histogram of the games' wall times and the playouts
+ * of players which search by playouts.
+ * Keeps a fixed amount of data whatever the number of games, and the move count histogram only has the
+ * move counts which were actually played, whatever the board's size. Not thread safe: every thread of a
+ * parallel Tournament aggregates its own games, and the statistics of the threads are merged.
+ */
+public class TournamentStatistics implements GameResultSink {
+    private static final int PLAYER_1 = 0;
+    private static final int PLAYER_2 = 1;
+    private static final int MARK_X = 0;
+    private static final int MARK_O = 1;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int TIME_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final double PERCENT = 100;
+    private static final double NANOS_PER_MICRO = 1000;
+    private static final double NANOS_PER_SECOND = 1e9;
+    public static final String SUMMARY_HEADLINE = "######### Statistics #########";
+    public static final String WIN_RATE_MSG = "Player %d, %s win rate: %.2f%% (as X: %d, as O: %d)%n";
+    public static final String TIE_RATE_MSG = "Tie rate: %.2f%%%n";
+    public static final String MOVES_MSG = "Moves per game: mean %.2f, histogram [moves: games]:%n";
+    public static final String HISTOGRAM_MSG = "    %d: %d%n";
+    public static final String TIME_MSG = "Game time: mean %.2fus, %.2fns per move%n";
+    public static final String PERCENTILE_MSG = "    p%s: %.2fus%n";
+    public static final String PLAYOUTS_MSG = "Player %d, %s playouts: %.0f playouts/s (%d playouts)%n";
+
+    private final String[] playerNames;
+    private final long[] wins = new long[2];
+    private final long[][] winsByMark = new long[2][2];
+    private long ties = 0;
+    private long games = 0;
+    private long moves = 0;
+    private long nanos = 0;
+    // the number of games of every move count, sorted by the move count
+    private final TreeMap<Integer, long[]> moveCounts = new TreeMap<>();
+    private final long[] timeBuckets = new long[TIME_BUCKETS];
+    private final long[] playouts = new long[2];
+    private final long[] playoutNanos = new long[2];
+
+    /**
+     * Constructor: Creates empty statistics of a Tournament.
+     * @param playerNames: String[] - The types of the Tournament's players.
+     */
+    public TournamentStatistics(String[] playerNames) {
+        this.playerNames = playerNames;
+    }
+
+    /**
+     * Adds a game to the statistics.
+     * Player 1 is the 'X' player of even rounds and the 'O' player of odd rounds.
+     * @param record: GameRecord - The game's record.
+     */
+    @Override
+    public void accept(GameRecord record) {
+        games++;
+        moves += record.getMoveCount();
+        nanos += record.getNanos();
+        moveCounts.computeIfAbsent(record.getMoveCount(), count -> new long[1])[0]++;
+        timeBuckets[timeBucket(record.getNanos())]++;
+        if (record.getWinner() == Mark.BLANK) {
+            ties++;
+            return;
+        }
+        boolean xWon = record.getWinner() == Mark.X;
+        boolean player1IsX = record.getRound() % 2 == 0;
+        int winner = xWon == player1IsX ? PLAYER_1 : PLAYER_2;
+        wins[winner]++;
+        winsByMark[winner][xWon ? MARK_X : MARK_O]++;
+    }
+
+    /**
+     * Nothing to close, the statistics stay available.
+     */
+    @Override
+    public void close() {}
+
+    /**
+     * Adds the statistics of other games of the same Tournament to these statistics.
+     * @param other: TournamentStatistics - The other statistics.
+     */
+    public void merge(TournamentStatistics other) {
+        for (int player = PLAYER_1; player <= PLAYER_2; player++) {
+            wins[player] += other.wins[player];
+            winsByMark[player][MARK_X] += other.winsByMark[player][MARK_X];
+            winsByMark[player][MARK_O] += other.winsByMark[player][MARK_O];
+        }
+        ties += other.ties;
+        games += other.games;
+        moves += other.moves;
+        nanos += other.nanos;
+        for (Map.Entry<Integer, long[]> entry : other.moveCounts.entrySet()) {
+            moveCounts.computeIfAbsent(entry.getKey(), count -> new long[1])[0] += entry.getValue()[0];
+        }
+        for (int i = 0; i < timeBuckets.length; i++) {
+            timeBuckets[i] += other.timeBuckets[i];
+        }
+        for (int player = PLAYER_1; player <= PLAYER_2; player++) {
+            playouts[player] += other.playouts[player];
+            playoutNanos[player] += other.playoutNanos[player];
+        }
+    }
+
+    /**
+     * Adds the playouts which the Monte Carlo players among given players made so far.
+     * @param players: Player[] - The players, in the order of the Tournament's players.
+     */
+    public void addPlayouts(Player[] players) {
+        for (int player = PLAYER_1; player <= PLAYER_2 && player < players.length; player++) {
+            if (players[player] instanceof MonteCarloPlayer) {
+                MonteCarloPlayer monteCarloPlayer = (MonteCarloPlayer) players[player];
+                playouts[player] += monteCarloPlayer.getTotalPlayouts();
+                playoutNanos[player] += monteCarloPlayer.getTotalNanos();
+            }
+        }
+    }
+
+    /**
+     * Prints the playouts per second of every player which made playouts.
+     */
+    public void printPlayouts() {
+        for (int player = PLAYER_1; player <= PLAYER_2; player++) {
+            if (playouts[player] > 0) {
+                System.out.printf(PLAYOUTS_MSG, player + 1, playerNames[player],
+                        playouts[player] * NANOS_PER_SECOND / Math.max(playoutNanos[player], 1), playouts[player]);
+            }
+        }
+    }
+
+    /**
+     * Getter: Gets the types of the Tournament's players.
+     * @return String[] - The players' types.
+     */
+    public String[] getPlayerNames() {
+        return playerNames;
+    }
+
+    /**
+     * Getter: Gets the number of games a player won.
+     * @param player: int - 0 for player 1, 1 for player 2.
+     * @return long - The player's wins.
+     */
+    public long getWins(int player) {
+        return wins[player];
+    }
+
+    /**
+     * Getter: Gets the number of ties.
+     * @return long - The ties.
+     */
+    public long getTies() {
+        return ties;
+    }
+
+    /**
+     * Getter: Gets the number of games.
+     * @return long - The games.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Getter: Gets the total wall time of the games.
+     * @return long - The games' time in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Prints the win rates, the move count histogram and the game time percentiles.
+     */
+    public void printSummary() {
+        System.out.println(SUMMARY_HEADLINE);
+        double total = Math.max(games, 1);
+        for (int player = PLAYER_1; player <= PLAYER_2; player++) {
+            System.out.printf(WIN_RATE_MSG, player + 1, playerNames[player], wins[player] * PERCENT / total,
+                    winsByMark[player][MARK_X], winsByMark[player][MARK_O]);
+        }
+        System.out.printf(TIE_RATE_MSG, ties * PERCENT / total);
+        System.out.printf(MOVES_MSG, moves / total);
+        for (Map.Entry<Integer, long[]> entry : moveCounts.entrySet()) {
+            System.out.printf(HISTOGRAM_MSG, entry.getKey(), entry.getValue()[0]);
+        }
+        System.out.printf(TIME_MSG, nanos / total / NANOS_PER_MICRO, (double) nanos / Math.max(moves, 1));
+        for (double percentile : PERCENTILES) {
+            System.out.printf(PERCENTILE_MSG, percentile, percentileNanos(percentile) / NANOS_PER_MICRO);
+        }
+    }
+
+    /**
+     * Estimates a percentile of the games' wall times from the time histogram.
+     * @param percentile: double - The percentile, between 0 and 100.
+     * @return double - The percentile's time in nanoseconds (the upper end of its bucket).
+     */
+    public double percentileNanos(double percentile) {
+        long rank = (long) Math.ceil(percentile / PERCENT * games);
+        long seen = 0;
+        for (int bucket = 0; bucket < timeBuckets.length; bucket++) {
+            seen += timeBuckets[bucket];
+            if (seen >= rank && seen > 0) {
+                return bucketUpperBound(bucket);
+            }
+        }
+        return 0;
+    }
+
+    // private methods
+
+    /**
+     * Finds the time histogram's bucket of a given time. Buckets are exact up to 16ns, and above that
+     * every power of two is split into 16 buckets, so every bucket is at most ~6% wide.
+     * @param nanos: long - The time.
+     * @return int - The bucket's index.
+     */
+    private static int timeBucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Calculates the largest time of a time histogram's bucket.
+     * @param bucket: int - The bucket's index.
+     * @return long - The bucket's largest time in nanoseconds.
+     */
+    private static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
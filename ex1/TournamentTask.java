@@ -0,0 +1,85 @@
+import java.util.Random;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A ForkJoin task which plays a range of a Tournament's rounds.
+ * Ranges are split into fixed blocks of rounds, and every block is played on a single thread
+ * with its own players, Games and Boards, so no state is shared between threads.
+ * The players of a block are seeded by the Tournament's seed and the block's index,
+ * so the results of a Tournament depend only on its seed and not on the number of threads.
+ * Every block aggregates its own statistics, and the statistics are merged as tasks are joined.
+ */
+class TournamentTask extends RecursiveTask<TournamentStatistics> {
+    private static final long serialVersionUID = 1L;
+    private static final int ROUNDS_PER_BLOCK = 1024;
+    private static final long SEED_MIXER = 0x9E3779B97F4A7C15L;
+
+    private final String[] playerNames;
+    private final int size;
+    private final int winStreak;
+    private final long seed;
+    private final int firstRound;
+    private final int endRound;
+    private final GameResultSink resultSink;
+
+    /**
+     * Constructor: Creates a task which plays rounds [firstRound, endRound) of a Tournament.
+     * @param playerNames: String[] - The types of the Tournament's players.
+     * @param size: int - The Tournament's board's size.
+     * @param winStreak: int - The Tournament's WinStreak's size.
+     * @param seed: long - The Tournament's seed.
+     * @param firstRound: int - The first round to play.
+     * @param endRound: int - The round after the last round to play.
+     * @param resultSink: GameResultSink - The sink of the games' records, or null.
+     */
+    TournamentTask(String[] playerNames, int size, int winStreak, long seed, int firstRound, int endRound,
+                   GameResultSink resultSink) {
+        this.playerNames = playerNames;
+        this.size = size;
+        this.winStreak = winStreak;
+        this.seed = seed;
+        this.firstRound = firstRound;
+        this.endRound = endRound;
+        this.resultSink = resultSink;
+    }
+
+    /**
+     * Plays the task's rounds, splitting them into sub-tasks while there is more than a single block.
+     * @return TournamentStatistics - The statistics of the task's rounds.
+     */
+    @Override
+    protected TournamentStatistics compute() {
+        int blocks = (endRound - firstRound + ROUNDS_PER_BLOCK - 1) / ROUNDS_PER_BLOCK;
+        if (blocks <= 1) {
+            return playBlock();
+        }
+        int middleRound = firstRound + (blocks / 2) * ROUNDS_PER_BLOCK;
+        TournamentTask second =
+                new TournamentTask(playerNames, size, winStreak, seed, middleRound, endRound, resultSink);
+        second.fork();
+        TournamentStatistics statistics =
+                new TournamentTask(playerNames, size, winStreak, seed, firstRound, middleRound, resultSink).compute();
+        statistics.merge(second.join());
+        return statistics;
+    }
+
+    /**
+     * Plays a single block of rounds with new players, which share a position cache of their own.
+     * @return TournamentStatistics - The statistics of the block.
+     */
+    private TournamentStatistics playBlock() {
+        Random blockRandom = new Random(seed ^ (SEED_MIXER * (firstRound / ROUNDS_PER_BLOCK + 1)));
+        PlayerFactory playerFactory = new PlayerFactory();
+        Player[] players = new Player[playerNames.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = playerFactory.buildPlayer(playerNames[i], blockRandom.nextLong());
+        }
+        Renderer renderer = new VoidRenderer();
+        TournamentStatistics statistics = new TournamentStatistics(playerNames);
+        for (int round = firstRound; round < endRound; round++) {
+            Tournament.runGame(players, playerNames, size, winStreak, renderer, round, statistics, resultSink);
+        }
+        statistics.addPlayouts(players);
+        return statistics;
+    }
+}
@@ -1,8 +1,70 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
 import java.util.Scanner;
 //import ChatterBot.java;
 
 public class Chat {
+    // statements keep growing in a conversation, so replies are cut to a bounded length
+    static final int MAX_STATEMENT_LENGTH = 1 << 12;
+    static final String FIRST_STATEMENT = "say Java";
+    static final int TURNS_ARG = 0;
+    static final int TRANSCRIPT_ARG = 1;
+    static final String TRANSCRIPT_ERROR_MSG = "Could not write transcript file: %s%n";
+    static final String TRANSCRIPT_MSG = "Wrote %d turns to %s in %.2f s%n";
+    static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Runs a conversation of two bots: interactively, a turn per line of input, or with
+     * java Chat [turns] [transcript file] for a given number of turns written to a transcript file.
+     * @param args: Optional number of turns and transcript file.
+     */
     public static void main (String[] args) {
+        ChatterBot[] bots = createBots(MAX_STATEMENT_LENGTH, new Random());
+
+       Rope statement = Rope.of(FIRST_STATEMENT);
+       if (args.length > TRANSCRIPT_ARG) {
+           runToTranscript(bots, statement, Long.parseLong(args[TURNS_ARG]), args[TRANSCRIPT_ARG]);
+           return;
+       }
+
+       Scanner scanner = new Scanner(System.in);
+       for (int i = 0; ; i++) {
+           statement = bots[i % bots.length].replyTo(statement);
+           System.out.println(bots[i % bots.length].getName() + ": " + statement);
+           scanner.nextLine();
+       }
+    }
+
+    /**
+     * Runs a conversation without any input, writing it to a transcript file in the background.
+     * @param bots: ChatterBot[] - The bots, in the order they reply.
+     * @param statement: Rope - The conversation's first statement.
+     * @param turns: long - The number of turns.
+     * @param filename: String - The path of the transcript file.
+     */
+    static void runToTranscript(ChatterBot[] bots, Rope statement, long turns, String filename) {
+        long start = System.nanoTime();
+        try (TranscriptWriter transcript = new TranscriptWriter(filename)) {
+            for (long i = 0; i < turns; i++) {
+                ChatterBot bot = bots[(int) (i % bots.length)];
+                statement = bot.replyTo(statement);
+                transcript.write(bot.getName(), statement);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.printf(TRANSCRIPT_ERROR_MSG, filename);
+            return;
+        }
+        System.out.printf(TRANSCRIPT_MSG, turns, filename, (System.nanoTime() - start) / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Creates the two bots of a Chat, each with its own seeded random generator.
+     * @param maxStatementLength: int - The maximal length of the bots' replies.
+     * @param seeds: Random - The generator of the bots' seeds.
+     * @return ChatterBot[] - The bots, in the order they reply.
+     */
+    static ChatterBot[] createBots(int maxStatementLength, Random seeds) {
         ChatterBot[] bots = new ChatterBot[2];
 
         String[] RepliesToLegalResponse0 = {"say " + ChatterBot.REQUESTED_PHRASE_PLACEHOLDER +
@@ -11,22 +73,16 @@ public class Chat {
                                                     " is my favourite word, " +
                                                     ChatterBot.REQUESTED_PHRASE_PLACEHOLDER + "!"};
         String[] RepliesToIllegalResponse0 = {"what", "say I should say"};
-        bots[0] = new ChatterBot("Botty", RepliesToLegalResponse0, RepliesToIllegalResponse0);
+        bots[0] = new ChatterBot("Botty", RepliesToLegalResponse0, RepliesToIllegalResponse0,
+                                 maxStatementLength, seeds.nextLong());
 
         String[] RepliesToLegalResponse1 = {"You want me to say "+ ChatterBot.REQUESTED_PHRASE_PLACEHOLDER +
                                                 "? alright: " + ChatterBot.REQUESTED_PHRASE_PLACEHOLDER,
                                             ChatterBot.REQUESTED_PHRASE_PLACEHOLDER + "!"};
         String[] RepliesToIllegalResponse1 = {"say what? what is " + ChatterBot.ILLEGAL_REQUEST_PLACEHOLDER +
                                                     "?", "say say"};
-        bots[1] = new ChatterBot("Botta", RepliesToLegalResponse1, RepliesToIllegalResponse1);
-
-       String statement = "say Java";
-
-       Scanner scanner = new Scanner(System.in);
-       for (int i = 0; ; i++) {
-           statement = bots[i % bots.length].replyTo(statement);
-           System.out.println(bots[i % bots.length].getName() + ": " + statement);
-           scanner.nextLine();
-       }
+        bots[1] = new ChatterBot("Botta", RepliesToLegalResponse1, RepliesToIllegalResponse1,
+                                 maxStatementLength, seeds.nextLong());
+        return bots;
     }
 }
@@ -0,0 +1,202 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * A benchmark suite of the ChatterBot's reply generation: replyTo on strings and ropes, the reply
+ * patterns' placeholder replacement, the legacy respondTo methods and intent matching, for short and
+ * long statements and for legal and illegal requests.
+ * Every benchmark is warmed up and then measured over several iterations, and reports its throughput
+ * (with the spread between iterations) and the bytes it allocates per reply.
+ * Run with: java ChatBenchmark [iterations] [millisPerIteration]
+ */
+class ChatBenchmark {
+    // Data Members
+    static final int DEFAULT_ITERATIONS = 5;
+    static final long DEFAULT_ITERATION_MILLIS = 1000;
+    static final int WARMUP_ITERATIONS = 3;
+    static final long SEED = 42;
+    static final String SHORT_PHRASE = "Java";
+    static final String LONG_PHRASE_WORD = "lorem ipsum ";
+    static final int INTENTS = 300;
+    static final double NANOS_PER_SECOND = 1e9;
+    static final long NANOS_PER_MILLI = 1_000_000;
+    static final String HEADER_FORMAT = "%-60s %15s %10s %15s%n";
+    static final String RESULT_FORMAT = "%-60s %15.1f %10.1f %15.1f %s%n";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Keeps results of measured operations alive, so they are not optimized away. */
+    private static volatile Object sink = null;
+
+    private final int iterations;
+    private final long iterationNanos;
+    private final String[] statements;
+    private final String[] statementNames;
+
+    /**
+     * A measured operation, which generates a single reply.
+     */
+    private interface Operation {
+        /**
+         * Runs the operation once.
+         * @return Object - The operation's result.
+         */
+        Object run();
+    }
+
+    // Methods
+    /**
+     * Constructor of ChatBenchmark Class.
+     * @param iterations: int - The number of measured iterations of every benchmark.
+     * @param iterationMillis: long - The length of each iteration.
+     */
+    ChatBenchmark(int iterations, long iterationMillis) {
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * NANOS_PER_MILLI;
+        String longPhrase = LONG_PHRASE_WORD.repeat(Chat.MAX_STATEMENT_LENGTH / LONG_PHRASE_WORD.length());
+        this.statements = new String[] {ChatterBot.REQUEST_PREFIX + SHORT_PHRASE, SHORT_PHRASE,
+                                        ChatterBot.REQUEST_PREFIX + longPhrase, longPhrase};
+        this.statementNames = new String[] {"short legal", "short illegal", "long legal", "long illegal"};
+    }
+
+    /**
+     * Runs the whole benchmark suite.
+     * @param args: Optional iteration count and iteration length in milliseconds.
+     */
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_ITERATION_MILLIS;
+        ChatBenchmark benchmark = new ChatBenchmark(iterations, millis);
+        System.out.printf(HEADER_FORMAT, "Benchmark", "Score", "Error", "Bytes/reply");
+        benchmark.benchmarkReplies();
+        benchmark.benchmarkPatterns();
+        benchmark.benchmarkLegacyResponses();
+        benchmark.benchmarkIntents();
+        benchmark.benchmarkConversation();
+    }
+
+    /**
+     * Benchmarks replyTo on strings, by a bot of unbounded length, and on ropes, by a bot of bounded length.
+     */
+    void benchmarkReplies() {
+        ChatterBot stringBot = Chat.createBots(ChatterBot.UNBOUNDED_LENGTH, new Random(SEED))[1];
+        ChatterBot ropeBot = Chat.createBots(Chat.MAX_STATEMENT_LENGTH, new Random(SEED))[1];
+        for (int i = 0; i < statements.length; i++) {
+            String statement = statements[i];
+            Rope rope = Rope.of(statement);
+            measure("ChatterBot.replyTo(String) " + statementNames[i], () -> stringBot.replyTo(statement));
+            measure("ChatterBot.replyTo(Rope) " + statementNames[i], () -> ropeBot.replyTo(rope));
+        }
+    }
+
+    /**
+     * Benchmarks filling the reply patterns, from the patterns' strings and from their compiled templates.
+     */
+    void benchmarkPatterns() {
+        ChatterBot bot = Chat.createBots(ChatterBot.UNBOUNDED_LENGTH, new Random(SEED))[1];
+        for (int i = 0; i < statements.length; i += 2) {
+            String phrase = statements[i].substring(ChatterBot.REQUEST_PREFIX.length());
+            String name = statementNames[i].split(" ")[0];
+            measure("ChatterBot.replacePlaceholderInARandomPattern(String[]) " + name,
+                    () -> bot.replacePlaceholderInARandomPattern(bot.repliesToLegalRequest,
+                                                                 ChatterBot.REQUESTED_PHRASE_PLACEHOLDER, phrase));
+            measure("ChatterBot.replacePlaceholderInARandomPattern(ReplyTemplate[]) " + name,
+                    () -> bot.replacePlaceholderInARandomPattern(bot.legalTemplates, phrase));
+        }
+    }
+
+    /**
+     * Benchmarks the legacy respondToLegalRequest and respondToIllegalRequest, which use regular expressions.
+     */
+    void benchmarkLegacyResponses() {
+        ChatterBot bot = Chat.createBots(ChatterBot.UNBOUNDED_LENGTH, new Random(SEED))[1];
+        for (int i = 0; i < statements.length; i += 2) {
+            String phrase = statements[i].substring(ChatterBot.REQUEST_PREFIX.length());
+            String name = statementNames[i].split(" ")[0];
+            measure("ChatterBot.respondToLegalRequest " + name, () -> bot.respondToLegalRequest(phrase));
+            measure("ChatterBot.respondToIllegalRequest " + name, () -> bot.respondToIllegalRequest(phrase));
+        }
+    }
+
+    /**
+     * Benchmarks replyTo by a bot with many intents, none of which matches, so every statement is scanned whole.
+     */
+    void benchmarkIntents() {
+        Intent[] intents = new Intent[INTENTS];
+        for (int i = 0; i < INTENTS; i++) {
+            String[] replies = {ChatterBot.REQUESTED_PHRASE_PLACEHOLDER + " #" + i};
+            intents[i] = i % 2 == 0 ? Intent.request("ask" + i + " ", replies) : Intent.keyword("#" + i, replies);
+        }
+        ChatterBot bot = new ChatterBot("Botti", new String[] {ChatterBot.REQUESTED_PHRASE_PLACEHOLDER},
+                                        new String[] {ChatterBot.ILLEGAL_REQUEST_PLACEHOLDER},
+                                        Chat.MAX_STATEMENT_LENGTH, SEED, intents);
+        for (int i = 0; i < statements.length; i++) {
+            Rope rope = Rope.of(statements[i]);
+            measure(String.format("ChatterBot.replyTo %d intents %s", INTENTS, statementNames[i]),
+                    () -> bot.replyTo(rope));
+        }
+    }
+
+    /**
+     * Benchmarks a conversation of the Chat's bots, whose statements grow up to the Chat's maximal length.
+     */
+    void benchmarkConversation() {
+        ChatterBot[] bots = Chat.createBots(Chat.MAX_STATEMENT_LENGTH, new Random(SEED));
+        Rope[] statement = {Rope.of(Chat.FIRST_STATEMENT)};
+        int[] turn = {0};
+        measure("Chat conversation turn", () -> {
+            statement[0] = bots[turn[0]++ % bots.length].replyTo(statement[0]);
+            return statement[0];
+        });
+    }
+
+    // private methods
+
+    /**
+     * Warms up and measures an operation, and prints its throughput and allocation per reply.
+     * @param name: String - The benchmark's name.
+     * @param operation: Operation - The measured operation.
+     */
+    private void measure(String name, Operation operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(operation);
+        }
+        double[] scores = new double[iterations];
+        double bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            double[] result = runIteration(operation);
+            scores[i] = result[0];
+            bytes += result[1] / iterations;
+        }
+        double mean = 0;
+        for (double score : scores) {
+            mean += score / iterations;
+        }
+        double variance = 0;
+        for (double score : scores) {
+            variance += (score - mean) * (score - mean) / Math.max(iterations - 1, 1);
+        }
+        System.out.printf(RESULT_FORMAT, name, mean, Math.sqrt(variance), bytes, "replies/s");
+    }
+
+    /**
+     * Runs an operation repeatedly for a single iteration's length.
+     * @param operation: Operation - The operation.
+     * @return double[] - {replies per second, bytes allocated per reply}.
+     */
+    private double[] runIteration(Operation operation) {
+        long threadId = Thread.currentThread().getId();
+        long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long replies = 0;
+        long elapsed;
+        do {
+            sink = operation.run();
+            replies++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - startBytes;
+        return new double[] {replies * NANOS_PER_SECOND / elapsed, (double) bytes / replies};
+    }
+}
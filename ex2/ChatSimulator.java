@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A simulator of many bot conversations at once, for using the bots as a load generator.
+ * Every conversation is a pair of the Chat's bots, with their own seeded random generators, which
+ * starts from a statement of a script file and runs for a given number of replies on its own thread.
+ * The script file has an opening statement per line, blank lines and lines starting with '#' are skipped,
+ * and the conversations take the script's statements in turns.
+ * Conversations run on virtual threads when the runtime has them, and on a pool of a thread per core
+ * otherwise. The simulator reports the throughput in replies per second.
+ * Run with: java ChatSimulator [script] [pairs] [replies per pair] [seed]
+ */
+public class ChatSimulator {
+    // Data Members
+    static final int SCRIPT_ARG = 0;
+    static final int PAIRS_ARG = 1;
+    static final int REPLIES_ARG = 2;
+    static final int SEED_ARG = 3;
+    static final int DEFAULT_PAIRS = 10_000;
+    static final int DEFAULT_REPLIES = 1_000;
+    static final long SEED_MIXER = 0x9E3779B97F4A7C15L;
+    static final double NANOS_PER_SECOND = 1e9;
+    static final String COMMENT_PREFIX = "#";
+    static final String VIRTUAL_EXECUTOR_METHOD = "newVirtualThreadPerTaskExecutor";
+    static final String USAGE_MSG = "Usage: java ChatSimulator [script] [pairs] [replies per pair] [seed]";
+    static final String SCRIPT_ERROR_MSG = "Could not read script file: %s%n";
+    static final String EMPTY_SCRIPT_MSG = "The script file has no statements: %s%n";
+    static final String RESULT_MSG = "%d pairs, %d replies in %.2f s: %.0f replies/s (%d characters) on %s%n";
+    static final String VIRTUAL_THREADS = "virtual threads";
+    static final String PLATFORM_THREADS = "%d platform threads";
+    private final List<String> statements;
+    private final int repliesPerPair;
+    private final long seed;
+
+    // Methods
+    /**
+     * Constructor of ChatSimulator Class.
+     * @param statements: List<String> - The opening statements of the conversations.
+     * @param repliesPerPair: int - The number of replies in every conversation.
+     * @param seed: long - The seed of all the bots' random generators.
+     */
+    ChatSimulator(List<String> statements, int repliesPerPair, long seed) {
+        this.statements = statements;
+        this.repliesPerPair = repliesPerPair;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the simulator, with: java ChatSimulator [script] [pairs] [replies per pair] [seed]
+     * @param args: The script file, and optional number of pairs, replies per pair and seed.
+     */
+    public static void main(String[] args) {
+        if (args.length <= SCRIPT_ARG) {
+            System.out.println(USAGE_MSG);
+            return;
+        }
+        List<String> statements;
+        try {
+            statements = readScript(args[SCRIPT_ARG]);
+        } catch (IOException e) {
+            System.out.printf(SCRIPT_ERROR_MSG, args[SCRIPT_ARG]);
+            return;
+        }
+        if (statements.isEmpty()) {
+            System.out.printf(EMPTY_SCRIPT_MSG, args[SCRIPT_ARG]);
+            return;
+        }
+        int pairs = args.length > PAIRS_ARG ? Integer.parseInt(args[PAIRS_ARG]) : DEFAULT_PAIRS;
+        int replies = args.length > REPLIES_ARG ? Integer.parseInt(args[REPLIES_ARG]) : DEFAULT_REPLIES;
+        long seed = args.length > SEED_ARG ? Long.parseLong(args[SEED_ARG]) : 0;
+        new ChatSimulator(statements, replies, seed).run(pairs);
+    }
+
+    /**
+     * Runs a given number of conversations concurrently, and prints their throughput.
+     * @param pairs: int - The number of conversations.
+     */
+    void run(int pairs) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        ExecutorService executor = virtualThreads != null ? virtualThreads : Executors.newFixedThreadPool(cores);
+        long start = System.nanoTime();
+        long characters = 0;
+        try {
+            List<Future<Long>> conversations = new ArrayList<>(pairs);
+            for (int pair = 0; pair < pairs; pair++) {
+                int conversation = pair;
+                conversations.add(executor.submit(() -> converse(conversation)));
+            }
+            for (Future<Long> conversation : conversations) {
+                characters += conversation.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        long replies = (long) pairs * repliesPerPair;
+        System.out.printf(RESULT_MSG, pairs, replies, seconds, replies / seconds, characters,
+                virtualThreads != null ? VIRTUAL_THREADS : String.format(PLATFORM_THREADS, cores));
+    }
+
+    /**
+     * Runs a single conversation between a new pair of bots.
+     * @param conversation: int - The conversation's index, which picks its opening statement and seeds.
+     * @return long - The total length of the conversation's replies.
+     */
+    long converse(int conversation) {
+        ChatterBot[] bots = Chat.createBots(Chat.MAX_STATEMENT_LENGTH,
+                                            new Random(seed ^ (SEED_MIXER * (conversation + 1))));
+        Rope statement = Rope.of(statements.get(conversation % statements.size()));
+        long characters = 0;
+        for (int i = 0; i < repliesPerPair; i++) {
+            statement = bots[i % bots.length].replyTo(statement);
+            characters += statement.length();
+        }
+        return characters;
+    }
+
+    /**
+     * Reads the opening statements of a script file.
+     * @param filename: String - The path of the script file.
+     * @return List<String> - The statements.
+     * @throws IOException  Signals that reading the file resulted an exception to be thrown.
+     */
+    static List<String> readScript(String filename) throws IOException {
+        List<String> statements = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(filename))) {
+            if (!line.isBlank() && !line.startsWith(COMMENT_PREFIX)) {
+                statements.add(line);
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Creates an executor which starts a virtual thread per task, if the runtime has virtual threads.
+     * It is looked up by reflection, so the simulator still compiles and runs without them.
+     * @return ExecutorService - The executor, or null if there are no virtual threads.
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(VIRTUAL_EXECUTOR_METHOD).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -16,10 +16,16 @@ class ChatterBot {
     static final String REQUEST_PREFIX = "say ";
     static final String REQUESTED_PHRASE_PLACEHOLDER = "<phrase>";
     static final String ILLEGAL_REQUEST_PLACEHOLDER = "<request>";
+    static final String STATEMENT_SEPARATOR = " ";
+    static final int UNBOUNDED_LENGTH = Integer.MAX_VALUE;
     Random rand = new Random();
     String name;
     String[] repliesToIllegalRequest;
     String[] repliesToLegalRequest;
+    ReplyTemplate[] legalTemplates;
+    ReplyTemplate[] illegalTemplates;
+    int maxStatementLength = UNBOUNDED_LENGTH;
+    IntentMatcher intents = null;
 
     // Methods
     /**
@@ -36,6 +42,57 @@ class ChatterBot {
         this.repliesToIllegalRequest = new String[repliesToIllegalRequest.length];
         System.arraycopy(repliesToIllegalRequest, 0, this.repliesToIllegalRequest,
                                                   0, repliesToIllegalRequest.length);
+        // parse the reply patterns once, so replies are filled without regular expressions
+        this.legalTemplates = ReplyTemplate.compileAll(this.repliesToLegalRequest, REQUESTED_PHRASE_PLACEHOLDER);
+        this.illegalTemplates = ReplyTemplate.compileAll(this.repliesToIllegalRequest,
+                                                         ILLEGAL_REQUEST_PLACEHOLDER);
+    }
+
+    /**
+     * Constructor of ChatterBot Class, whose replies are cut to a maximal length.
+     * Statements in a conversation of bots keep growing, so a bounded length keeps the conversation
+     * in bounded memory and every reply in constant time.
+     * @param name: String - The name of the bot.
+     * @param repliesToLegalRequest: String[] - All possible replies to legal requests.
+     * @param repliesToIllegalRequest: String[] - All possible replies to illegal requests.
+     * @param maxStatementLength: int - The maximal length of a reply, longer replies keep their start.
+     */
+    ChatterBot(String name, String[] repliesToLegalRequest, String[] repliesToIllegalRequest,
+               int maxStatementLength) {
+        this(name, repliesToLegalRequest, repliesToIllegalRequest);
+        this.maxStatementLength = maxStatementLength;
+    }
+
+    /**
+     * Constructor of ChatterBot Class, whose replies are cut to a maximal length and whose random
+     * choices are seeded, so bots replying concurrently don't share a random generator.
+     * @param name: String - The name of the bot.
+     * @param repliesToLegalRequest: String[] - All possible replies to legal requests.
+     * @param repliesToIllegalRequest: String[] - All possible replies to illegal requests.
+     * @param maxStatementLength: int - The maximal length of a reply, longer replies keep their start.
+     * @param seed: long - The seed of the bot's random choices.
+     */
+    ChatterBot(String name, String[] repliesToLegalRequest, String[] repliesToIllegalRequest,
+               int maxStatementLength, long seed) {
+        this(name, repliesToLegalRequest, repliesToIllegalRequest, maxStatementLength);
+        this.rand = new Random(seed);
+    }
+
+    /**
+     * Constructor of ChatterBot Class, which recognizes given intents before REQUEST_PREFIX.
+     * The intents are compiled into a single matcher, so a statement is matched against all of them
+     * in one scan.
+     * @param name: String - The name of the bot.
+     * @param repliesToLegalRequest: String[] - All possible replies to legal requests.
+     * @param repliesToIllegalRequest: String[] - All possible replies to illegal requests.
+     * @param maxStatementLength: int - The maximal length of a reply, longer replies keep their start.
+     * @param seed: long - The seed of the bot's random choices.
+     * @param intents: Intent[] - The bot's intents, with their own replies.
+     */
+    ChatterBot(String name, String[] repliesToLegalRequest, String[] repliesToIllegalRequest,
+               int maxStatementLength, long seed, Intent[] intents) {
+        this(name, repliesToLegalRequest, repliesToIllegalRequest, maxStatementLength, seed);
+        this.intents = new IntentMatcher(intents);
     }
 
     /**
@@ -55,18 +112,79 @@ class ChatterBot {
      * @return String - The bot's reply.
      */
     String replyTo(String statement) {
+        if (maxStatementLength == UNBOUNDED_LENGTH && intents == null) {
+            return replyToString(statement);
+        }
+        return replyTo(Rope.of(statement)).toString();
+    }
+
+    /**
+     * Gets a statement as an argument -> creates and returns a reply accordingly, like replyTo(String),
+     * but the reply refers to the statement instead of copying it, so replying takes time proportional
+     * to the replies' patterns and not to the statement. The reply is cut to the bot's maximal length.
+     * If the statement matches one of the bot's intents, the reply is one of the intent's replies.
+     * @param statement: Rope - The last given statement from the Chat.
+     * @return Rope - The bot's reply.
+     */
+    Rope replyTo(Rope statement) {
+        Rope reply;
+        int match = intents == null ? IntentMatcher.NO_MATCH : intents.match(statement);
+        if (match != IntentMatcher.NO_MATCH) {
+            // a request intent replies with the phrase after its prefix, a keyword intent with the statement
+            Intent intent = intents.getIntent(match);
+            ReplyTemplate[] templates = intent.getTemplates();
+            Rope phrase = intent.isRequest() ? statement.suffix(intent.getTrigger().length()) : statement;
+            reply = templates[rand.nextInt(templates.length)].fill(phrase);
+        } else if (statement.startsWith(REQUEST_PREFIX)) {
+            // legal request - we don’t repeat the request prefix, so delete it from the reply
+            reply = legalTemplates[rand.nextInt(legalTemplates.length)].fill(
+                    statement.suffix(REQUEST_PREFIX.length()));
+        } else {
+            // illegal request - get a reply by the random pattern
+            reply = illegalTemplates[rand.nextInt(illegalTemplates.length)].fill(statement);
+            // conduct a coin toss to determine if we should add the statement at the end of the reply
+            if (rand.nextBoolean()) {
+                reply = reply.concat(STATEMENT_SEPARATOR).concat(statement);
+            }
+        }
+        return reply.prefix(maxStatementLength);
+    }
+
+    /**
+     * Replies to a statement of a bot with an unbounded length, building the reply in a single pass.
+     * @param statement: String - The last given statement from the Chat.
+     * @return String - The bot's reply.
+     */
+    private String replyToString(String statement) {
         if (statement.startsWith(REQUEST_PREFIX)) {
             // legal request - we don’t repeat the request prefix, so delete it from the reply
-            return replacePlaceholderInARandomPattern(repliesToLegalRequest, REQUESTED_PHRASE_PLACEHOLDER,
-                                                    statement.replaceFirst(REQUEST_PREFIX, ""));
+            return replacePlaceholderInARandomPattern(legalTemplates,
+                                                    statement.substring(REQUEST_PREFIX.length()));
         }
 
         // illegal request - get a reply by the random pattern
-        String reply = replacePlaceholderInARandomPattern(repliesToIllegalRequest,
-                                                            ILLEGAL_REQUEST_PLACEHOLDER, statement);
+        ReplyTemplate template = illegalTemplates[rand.nextInt(illegalTemplates.length)];
         // conduct a coin toss to determine if we should add the statement at the end of the reply
-        return replacePlaceholderInARandomPattern(new String[]{reply,
-                String.format("%s %s", reply, statement)}, ILLEGAL_REQUEST_PLACEHOLDER, statement);
+        if (!rand.nextBoolean()) {
+            return template.fill(statement);
+        }
+        StringBuilder reply = new StringBuilder(template.replyLength(statement.length()) +
+                                                STATEMENT_SEPARATOR.length() + statement.length());
+        template.appendTo(reply, statement);
+        return reply.append(STATEMENT_SEPARATOR).append(statement).toString();
+    }
+
+    /**
+     * Gets a statement and an array of compiled reply templates
+     * Returns a reply to the statement based on random template
+     * Placeholders in the template are replaced by the statement itself
+     * @param templates: ReplyTemplate[] - An array of possible reply templates to the statement
+     * @param statement String - A statement to create a reply to
+     * @return String - The reply generated randomly by the steps mentioned
+     */
+    String replacePlaceholderInARandomPattern(ReplyTemplate[] templates, String statement) {
+        int randomIndex = rand.nextInt(templates.length);
+        return templates[randomIndex].fill(statement);
     }
 
     /**
@@ -81,7 +199,7 @@ class ChatterBot {
     String replacePlaceholderInARandomPattern(String[] replies, String placeholder, String statement) {
         int randomIndex = rand.nextInt(replies.length);
         String reply = replies[randomIndex];
-        return reply.replaceAll(placeholder, statement);
+        return reply.replace(placeholder, statement);
     }
 
     // replaced by function: replacePlaceholderInARandomPattern
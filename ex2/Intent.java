@@ -0,0 +1,74 @@
+/**
+ * An intent of the ChatterBot: a trigger which the bot recognizes in a statement, and the replies
+ * to a statement which triggers it.
+ * A request intent is triggered by a statement starting with its trigger (like REQUEST_PREFIX),
+ * and its replies' placeholders are replaced by the rest of the statement.
+ * A keyword intent is triggered by its trigger anywhere in a statement, and its replies' placeholders
+ * are replaced by the whole statement.
+ */
+class Intent {
+    // Data Members
+    private final String trigger;
+    private final boolean request;
+    private final ReplyTemplate[] templates;
+
+    // Methods
+    /**
+     * Constructor of Intent Class.
+     * @param trigger: String - The intent's trigger, not empty.
+     * @param request: boolean - true for a request intent, false for a keyword intent.
+     * @param replies: String[] - All possible replies to the intent, with REQUESTED_PHRASE_PLACEHOLDER.
+     */
+    private Intent(String trigger, boolean request, String[] replies) {
+        if (trigger.isEmpty() || replies.length == 0) {
+            throw new IllegalArgumentException("An intent needs a trigger and replies");
+        }
+        this.trigger = trigger;
+        this.request = request;
+        this.templates = ReplyTemplate.compileAll(replies, ChatterBot.REQUESTED_PHRASE_PLACEHOLDER);
+    }
+
+    /**
+     * Creates an intent triggered by statements which start with a given prefix.
+     * @param prefix: String - The request's prefix, e.g. "say ".
+     * @param replies: String[] - All possible replies, whose placeholders are replaced by the requested phrase.
+     * @return Intent - The request intent.
+     */
+    static Intent request(String prefix, String[] replies) {
+        return new Intent(prefix, true, replies);
+    }
+
+    /**
+     * Creates an intent triggered by statements which contain a given keyword.
+     * @param keyword: String - The keyword.
+     * @param replies: String[] - All possible replies, whose placeholders are replaced by the statement.
+     * @return Intent - The keyword intent.
+     */
+    static Intent keyword(String keyword, String[] replies) {
+        return new Intent(keyword, false, replies);
+    }
+
+    /**
+     * Getter: Gets the intent's trigger.
+     * @return String - The trigger.
+     */
+    String getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * Checks if the intent is a request intent.
+     * @return boolean - true for a request intent, false for a keyword intent.
+     */
+    boolean isRequest() {
+        return request;
+    }
+
+    /**
+     * Getter: Gets the intent's compiled replies.
+     * @return ReplyTemplate[] - The reply templates.
+     */
+    ReplyTemplate[] getTemplates() {
+        return templates;
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * Matches statements against all the intents of a ChatterBot at once, in a single scan of the statement
+ * however many intents there are, with an Aho-Corasick automaton of the intents' triggers.
+ * A statement matches the request intent with the longest prefix of the statement, and if there is
+ * none, the keyword intent which occurs first in the statement (the longest one, if several end at the
+ * same character). Among intents with the same trigger, the first one given wins.
+ */
+class IntentMatcher {
+    // Data Members
+    static final int NO_MATCH = -1;
+    private static final int ROOT = 0;
+    private static final long EMPTY = -1;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private final Intent[] intents;
+    private final int[] failures;
+    private final int[] depths;
+    private final int[] requestIntents;
+    private final int[] keywordIntents;
+    private final int[] keywordLinks;
+    private final char[] edgeChars;
+    private final long[] edgeKeys;
+    private final int[] edgeTargets;
+    private final int edgeBits;
+
+    // Methods
+    /**
+     * Constructor of IntentMatcher Class, which compiles the intents' triggers into an automaton.
+     * @param intents: Intent[] - The intents.
+     */
+    IntentMatcher(Intent[] intents) {
+        this.intents = intents.clone();
+        int maxNodes = 1;
+        for (Intent intent : intents) {
+            maxNodes += intent.getTrigger().length();
+        }
+        failures = new int[maxNodes];
+        depths = new int[maxNodes];
+        requestIntents = new int[maxNodes];
+        keywordIntents = new int[maxNodes];
+        keywordLinks = new int[maxNodes];
+        edgeChars = new char[maxNodes];
+        Arrays.fill(requestIntents, NO_MATCH);
+        Arrays.fill(keywordIntents, NO_MATCH);
+        // the edges' table is kept at most half full
+        edgeBits = Integer.SIZE - Integer.numberOfLeadingZeros(maxNodes) + 1;
+        edgeKeys = new long[1 << edgeBits];
+        edgeTargets = new int[1 << edgeBits];
+        Arrays.fill(edgeKeys, EMPTY);
+
+        // build the trie of the triggers
+        int nodeCount = 1;
+        int[][] children = new int[maxNodes][];
+        int[] childCounts = new int[maxNodes];
+        for (int i = 0; i < intents.length; i++) {
+            String trigger = intents[i].getTrigger();
+            int node = ROOT;
+            for (int j = 0; j < trigger.length(); j++) {
+                int child = edge(node, trigger.charAt(j));
+                if (child == NO_MATCH) {
+                    child = nodeCount++;
+                    depths[child] = depths[node] + 1;
+                    edgeChars[child] = trigger.charAt(j);
+                    putEdge(node, trigger.charAt(j), child);
+                    if (children[node] == null || childCounts[node] == children[node].length) {
+                        children[node] = Arrays.copyOf(children[node] == null ? new int[0] : children[node],
+                                                       Math.max(2, 2 * childCounts[node]));
+                    }
+                    children[node][childCounts[node]++] = child;
+                }
+                node = child;
+            }
+            int[] targets = intents[i].isRequest() ? requestIntents : keywordIntents;
+            if (targets[node] == NO_MATCH) {
+                targets[node] = i;
+            }
+        }
+
+        // link every node to the node of its longest proper suffix, breadth first
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int k = 0; k < childCounts[ROOT]; k++) {
+            queue[tail++] = children[ROOT][k];
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int k = 0; k < childCounts[node]; k++) {
+                int child = children[node][k];
+                failures[child] = depths[child] == 1 ? ROOT : next(failures[node], edgeChars[child]);
+                int failure = failures[child];
+                keywordLinks[child] = keywordIntents[failure] != NO_MATCH ? failure : keywordLinks[failure];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Finds the intent matched by a statement.
+     * @param statement: CharSequence - The statement.
+     * @return int - The index of the matched intent, or NO_MATCH if the statement matches no intent.
+     */
+    int match(CharSequence statement) {
+        int request = NO_MATCH;
+        int keyword = NO_MATCH;
+        boolean prefixAlive = true;
+        int state = ROOT;
+        for (int i = 0; i < statement.length(); i++) {
+            state = next(state, statement.charAt(i));
+            if (prefixAlive && depths[state] == i + 1) {
+                // the automaton is still on the path of the statement's prefix
+                if (requestIntents[state] != NO_MATCH) {
+                    request = requestIntents[state];
+                }
+            } else {
+                prefixAlive = false;
+            }
+            if (keyword == NO_MATCH) {
+                int node = keywordIntents[state] != NO_MATCH ? state : keywordLinks[state];
+                keyword = keywordIntents[node];
+            }
+            if (!prefixAlive && (request != NO_MATCH || keyword != NO_MATCH)) {
+                break;
+            }
+        }
+        return request != NO_MATCH ? request : keyword;
+    }
+
+    /**
+     * Getter: Gets a matched intent.
+     * @param index: int - The intent's index, as returned by match.
+     * @return Intent - The intent.
+     */
+    Intent getIntent(int index) {
+        return intents[index];
+    }
+
+    // private methods
+
+    /**
+     * Moves the automaton from a node by a character, following failure links until the character
+     * continues a trigger.
+     * @param node: int - The automaton's node.
+     * @param c: char - The next character of the statement.
+     * @return int - The next node.
+     */
+    private int next(int node, char c) {
+        while (true) {
+            int child = edge(node, c);
+            if (child != NO_MATCH) {
+                return child;
+            }
+            if (node == ROOT) {
+                return ROOT;
+            }
+            node = failures[node];
+        }
+    }
+
+    /**
+     * Finds the trie's edge from a node by a character.
+     * @param node: int - The node.
+     * @param c: char - The character.
+     * @return int - The edge's target node, or NO_MATCH if there is no such edge.
+     */
+    private int edge(int node, char c) {
+        long key = (long) node << Character.SIZE | c;
+        int mask = edgeKeys.length - 1;
+        for (int slot = slot(key); edgeKeys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (edgeKeys[slot] == key) {
+                return edgeTargets[slot];
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Adds an edge to the trie.
+     * @param node: int - The edge's source node.
+     * @param c: char - The edge's character.
+     * @param target: int - The edge's target node.
+     */
+    private void putEdge(int node, char c, int target) {
+        long key = (long) node << Character.SIZE | c;
+        int mask = edgeKeys.length - 1;
+        int slot = slot(key);
+        while (edgeKeys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        edgeKeys[slot] = key;
+        edgeTargets[slot] = target;
+    }
+
+    /**
+     * Computes the first slot of an edge's key in the edges' table.
+     * @param key: long - The edge's key.
+     * @return int - The slot.
+     */
+    private int slot(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> (Long.SIZE - edgeBits));
+    }
+}
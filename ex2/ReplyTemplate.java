@@ -0,0 +1,97 @@
+/**
+ * A reply pattern of the ChatterBot, parsed once into its literal segments and the placeholder
+ * slots between them, so a reply is filled in a single append pass, without regular expressions.
+ * The filling phrase is inserted as is, even if it contains regex characters such as '$' or '\'.
+ */
+class ReplyTemplate {
+    // Data Members
+    private final String[] segments;
+    private final Rope[] segmentRopes;
+    private final int literalLength;
+
+    // Methods
+    /**
+     * Constructor of ReplyTemplate Class.
+     * @param pattern: String - The reply pattern.
+     * @param placeholder: String - The placeholder to be replaced in the pattern.
+     */
+    ReplyTemplate(String pattern, String placeholder) {
+        int slots = 0;
+        for (int i = pattern.indexOf(placeholder); !placeholder.isEmpty() && i >= 0;
+             i = pattern.indexOf(placeholder, i + placeholder.length())) {
+            slots++;
+        }
+        this.segments = new String[slots + 1];
+        int start = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int end = pattern.indexOf(placeholder, start);
+            segments[slot] = pattern.substring(start, end);
+            start = end + placeholder.length();
+        }
+        segments[slots] = pattern.substring(start);
+        this.segmentRopes = new Rope[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            segmentRopes[i] = Rope.of(segments[i]);
+        }
+        this.literalLength = pattern.length() - slots * placeholder.length();
+    }
+
+    /**
+     * Compiles all the patterns of a replies array.
+     * @param patterns: String[] - The reply patterns.
+     * @param placeholder: String - The placeholder to be replaced in the patterns.
+     * @return ReplyTemplate[] - The compiled templates, in the patterns' order.
+     */
+    static ReplyTemplate[] compileAll(String[] patterns, String placeholder) {
+        ReplyTemplate[] templates = new ReplyTemplate[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            templates[i] = new ReplyTemplate(patterns[i], placeholder);
+        }
+        return templates;
+    }
+
+    /**
+     * Fills the template's placeholder slots with a phrase.
+     * @param phrase: String - The phrase to put in every placeholder slot.
+     * @return String - The filled reply.
+     */
+    String fill(String phrase) {
+        StringBuilder reply = new StringBuilder(replyLength(phrase.length()));
+        appendTo(reply, phrase);
+        return reply.toString();
+    }
+
+    /**
+     * Fills the template's placeholder slots with a phrase, without copying the phrase.
+     * @param phrase: Rope - The phrase to put in every placeholder slot.
+     * @return Rope - The filled reply.
+     */
+    Rope fill(Rope phrase) {
+        Rope reply = segmentRopes[0];
+        for (int i = 1; i < segmentRopes.length; i++) {
+            reply = reply.concat(phrase).concat(segmentRopes[i]);
+        }
+        return reply;
+    }
+
+    /**
+     * Appends the template to a builder, with its placeholder slots filled with a phrase.
+     * @param reply: StringBuilder - The builder to append to.
+     * @param phrase: String - The phrase to put in every placeholder slot.
+     */
+    void appendTo(StringBuilder reply, String phrase) {
+        reply.append(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            reply.append(phrase).append(segments[i]);
+        }
+    }
+
+    /**
+     * Computes the length of the template filled with a phrase of a given length.
+     * @param phraseLength: int - The length of the phrase.
+     * @return int - The length of the filled reply.
+     */
+    int replyLength(int phraseLength) {
+        return literalLength + (segments.length - 1) * phraseLength;
+    }
+}
@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * An immutable string of the Chat, kept as a tree of shared pieces, so a reply can contain the
+ * statement it replies to (even several times) without copying it.
+ * Concatenating ropes and cutting a prefix or a suffix off a rope copy no characters, only the
+ * pieces along the rope's edges, which takes time proportional to the rope's depth.
+ * A piece is a slice of a string, so cutting a piece doesn't copy it either.
+ * A rope which gets too deep is flattened into a single piece.
+ */
+class Rope implements CharSequence {
+    // Data Members
+    static final Rope EMPTY = new Rope("");
+    static final int MAX_DEPTH = 64;
+    static final int SHORT_PIECE_LENGTH = 32;
+    static final String TOO_LONG_MSG = "A rope can't be longer than " + Integer.MAX_VALUE + " characters";
+    private final String piece;
+    private final int offset;
+    private final Rope left;
+    private final Rope right;
+    private final int length;
+    private final int depth;
+
+    // Methods
+    /**
+     * Constructor of a Rope of a single piece.
+     * @param piece: String - The rope's characters.
+     */
+    private Rope(String piece) {
+        this(piece, 0, piece.length());
+    }
+
+    /**
+     * Constructor of a Rope of a slice of a string.
+     * @param piece: String - The string.
+     * @param offset: int - The index of the slice's first character.
+     * @param length: int - The length of the slice.
+     */
+    private Rope(String piece, int offset, int length) {
+        this.piece = piece;
+        this.offset = offset;
+        this.left = null;
+        this.right = null;
+        this.length = length;
+        this.depth = 0;
+    }
+
+    /**
+     * Constructor of a Rope of two ropes.
+     * @param left: Rope - The rope's start.
+     * @param right: Rope - The rope's end.
+     */
+    private Rope(Rope left, Rope right) {
+        this.piece = null;
+        this.offset = 0;
+        this.left = left;
+        this.right = right;
+        this.length = left.length + right.length;
+        this.depth = 1 + Math.max(left.depth, right.depth);
+    }
+
+    /**
+     * Creates a rope of a string, without copying it.
+     * @param string: String - The rope's characters.
+     * @return Rope - The rope.
+     */
+    static Rope of(String string) {
+        return string.isEmpty() ? EMPTY : new Rope(string);
+    }
+
+    /**
+     * Concatenates a rope after this rope.
+     * @param other: Rope - The rope to put after this rope.
+     * @return Rope - This rope followed by the other rope.
+     * @throws IllegalStateException  Signals that the concatenated rope is too long.
+     */
+    Rope concat(Rope other) {
+        if (other.length == 0) {
+            return this;
+        }
+        if (length == 0) {
+            return other;
+        }
+        if (length > Integer.MAX_VALUE - other.length) {
+            throw new IllegalStateException(TOO_LONG_MSG);
+        }
+        if (piece != null && other.piece != null && length + other.length <= SHORT_PIECE_LENGTH) {
+            return new Rope(toString() + other);
+        }
+        Rope rope = new Rope(this, other);
+        return rope.depth > MAX_DEPTH ? new Rope(rope.toString()) : rope;
+    }
+
+    /**
+     * Concatenates a string after this rope.
+     * @param other: String - The string to put after this rope.
+     * @return Rope - This rope followed by the string.
+     */
+    Rope concat(String other) {
+        return concat(of(other));
+    }
+
+    /**
+     * Gets the start of this rope.
+     * @param end: int - The length of the start.
+     * @return Rope - The rope's first 'end' characters.
+     */
+    Rope prefix(int end) {
+        if (end >= length) {
+            return this;
+        }
+        if (end <= 0) {
+            return EMPTY;
+        }
+        if (piece != null) {
+            return new Rope(piece, offset, end);
+        }
+        if (end <= left.length) {
+            return left.prefix(end);
+        }
+        return left.concat(right.prefix(end - left.length));
+    }
+
+    /**
+     * Gets the end of this rope.
+     * @param start: int - The index of the end's first character.
+     * @return Rope - The rope's characters from 'start' onwards.
+     */
+    Rope suffix(int start) {
+        if (start <= 0) {
+            return this;
+        }
+        if (start >= length) {
+            return EMPTY;
+        }
+        if (piece != null) {
+            return new Rope(piece, offset + start, length - start);
+        }
+        if (start >= left.length) {
+            return right.suffix(start - left.length);
+        }
+        return left.suffix(start).concat(right);
+    }
+
+    /**
+     * Checks if this rope starts with a given prefix.
+     * @param prefix: String - The prefix.
+     * @return boolean - true if the rope starts with the prefix, false otherwise.
+     */
+    boolean startsWith(String prefix) {
+        if (prefix.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes this rope's characters, piece after piece, without building a string of the whole rope.
+     * @param out: Appendable - The output to write to.
+     * @throws IOException  Signals that writing to the output resulted an exception to be thrown.
+     */
+    void writeTo(Appendable out) throws IOException {
+        ArrayDeque<Rope> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            Rope rope = pending.pop();
+            if (rope.piece != null) {
+                out.append(rope.piece, rope.offset, rope.offset + rope.length);
+            } else {
+                pending.push(rope.right);
+                pending.push(rope.left);
+            }
+        }
+    }
+
+    /**
+     * Gets the length of the rope.
+     * @return int - The number of characters in the rope.
+     */
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Gets a character of the rope.
+     * @param index: int - The character's index.
+     * @return char - The character.
+     */
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Rope rope = this;
+        while (rope.piece == null) {
+            if (index < rope.left.length) {
+                rope = rope.left;
+            } else {
+                index -= rope.left.length;
+                rope = rope.right;
+            }
+        }
+        return rope.piece.charAt(rope.offset + index);
+    }
+
+    /**
+     * Gets a part of the rope.
+     * @param start: int - The index of the part's first character.
+     * @param end: int - The index after the part's last character.
+     * @return CharSequence - The part, as a Rope.
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(start);
+        }
+        return prefix(end).suffix(start);
+    }
+
+    /**
+     * Builds a string of the whole rope.
+     * @return String - The rope's characters.
+     */
+    @Override
+    public String toString() {
+        if (piece != null) {
+            return offset == 0 && length == piece.length() ? piece : piece.substring(offset, offset + length);
+        }
+        StringBuilder string = new StringBuilder(length);
+        try {
+            writeTo(string);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new IllegalStateException(e);
+        }
+        return string.toString();
+    }
+}
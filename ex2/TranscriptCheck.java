@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A check of the TranscriptWriter's time flush: a batch smaller than the batch size must reach the
+ * file within the flush interval, without waiting for more lines or for the writer to be closed.
+ * Prints the result, and exits with a non-zero status if the check fails.
+ * Run with: java TranscriptCheck
+ */
+class TranscriptCheck {
+    // Data Members
+    static final int LINES = 5;
+    static final int CAPACITY = 1 << 6;
+    static final int BATCH_LINES = 1 << 4;
+    static final long FLUSH_MILLIS = 100;
+    // the time the file is given to get the lines, well past the flush interval
+    static final long WAIT_MILLIS = 10 * FLUSH_MILLIS;
+    static final long POLL_MILLIS = 10;
+    static final String SPEAKER = "Botty";
+    static final String PASSED_MSG = "%d lines of a partial batch were written in %d ms (flush interval %d ms)%n";
+    static final String FAILED_MSG = "%d lines of a partial batch were not written within %d ms (flush interval %d ms)%n";
+
+    /**
+     * Runs the check.
+     * @param args: Unused.
+     * @throws IOException  Signals that the transcript file could not be created or written.
+     * @throws InterruptedException  Signals that the check was interrupted while waiting for the file.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path file = Files.createTempFile("transcript", ".txt");
+        long expectedBytes = 0;
+        try (TranscriptWriter transcript = new TranscriptWriter(file.toString(), CAPACITY, BATCH_LINES,
+                                                                FLUSH_MILLIS)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LINES; i++) {
+                Rope statement = Rope.of(ChatterBot.REQUEST_PREFIX + i);
+                transcript.write(SPEAKER, statement);
+                expectedBytes += SPEAKER.length() + TranscriptWriter.SPEAKER_SEPARATOR.length() +
+                        statement.length() + System.lineSeparator().length();
+            }
+            long waited = 0;
+            while (Files.size(file) < expectedBytes && waited < WAIT_MILLIS) {
+                Thread.sleep(POLL_MILLIS);
+                waited = (System.nanoTime() - start) / 1_000_000;
+            }
+            if (Files.size(file) < expectedBytes) {
+                System.out.printf(FAILED_MSG, LINES, WAIT_MILLIS, FLUSH_MILLIS);
+                System.exit(1);
+            }
+            System.out.printf(PASSED_MSG, LINES, waited, FLUSH_MILLIS);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the transcript of a Chat to a file on a background thread, so the conversation never waits
+ * for the file, unless it is far ahead of it.
+ * Lines are queued in a bounded ring buffer, and the writer thread writes them in batches: when enough
+ * lines are queued, or when the batch's lines have waited long enough. Every batch is flushed to the
+ * file, so a transcript keeps all but its last batch if the program crashes.
+ * When the buffer is full, writing a line blocks until the writer thread has taken a batch (backpressure).
+ */
+class TranscriptWriter implements Closeable {
+    // Data Members
+    static final int DEFAULT_CAPACITY = 1 << 12;
+    static final int DEFAULT_BATCH_LINES = 1 << 10;
+    static final long DEFAULT_FLUSH_MILLIS = 100;
+    static final String SPEAKER_SEPARATOR = ": ";
+    static final String WRITE_ERROR_MSG = "Failed to write to \"%s\"";
+    static final String THREAD_NAME = "transcript-writer";
+    private final String filename;
+    private final Writer writer;
+    private final String[] speakers;
+    private final Rope[] statements;
+    private final int batchLines;
+    private final long flushNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition batchReady = lock.newCondition();
+    private final Thread thread;
+    private int head = 0;
+    private int count = 0;
+    private boolean closed = false;
+    private IOException failure = null;
+
+    // Methods
+    /**
+     * Constructor of TranscriptWriter Class, with the default buffer capacity and flush triggers.
+     * @param filename: String - The path of the transcript file.
+     * @throws IOException  Signals that opening the given file resulted an exception to be thrown.
+     */
+    TranscriptWriter(String filename) throws IOException {
+        this(filename, DEFAULT_CAPACITY, DEFAULT_BATCH_LINES, DEFAULT_FLUSH_MILLIS);
+    }
+
+    /**
+     * Constructor of TranscriptWriter Class, which opens the file and starts the writer thread.
+     * @param filename: String - The path of the transcript file.
+     * @param capacity: int - The maximal number of queued lines.
+     * @param batchLines: int - The number of queued lines which are written at once, up to capacity.
+     * @param flushMillis: long - The maximal time a queued line waits to be written.
+     * @throws IOException  Signals that opening the given file resulted an exception to be thrown.
+     */
+    TranscriptWriter(String filename, int capacity, int batchLines, long flushMillis) throws IOException {
+        this.filename = filename;
+        this.writer = Files.newBufferedWriter(Paths.get(filename), StandardCharsets.UTF_8);
+        this.speakers = new String[capacity];
+        this.statements = new Rope[capacity];
+        this.batchLines = Math.min(batchLines, capacity);
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        this.thread = new Thread(this::writeBatches, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a line of the transcript, blocking while the buffer is full.
+     * The statement is kept as is until it is written, which is safe since ropes are immutable.
+     * @param speaker: String - The name of the bot who made the statement.
+     * @param statement: Rope - The statement.
+     * @throws UncheckedIOException  Signals that the writer thread failed to write to the file.
+     */
+    void write(String speaker, Rope statement) {
+        lock.lock();
+        try {
+            while (count == speakers.length && failure == null) {
+                notFull.awaitUninterruptibly();
+            }
+            checkFailure();
+            int tail = (head + count) % speakers.length;
+            speakers[tail] = speaker;
+            statements[tail] = statement;
+            // the first line starts the batch's flush time, and a full batch is written at once
+            if (++count == 1 || count == batchLines) {
+                batchReady.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all the queued lines, stops the writer thread and closes the file.
+     * @throws IOException  Signals that writing or closing the file resulted an exception to be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            batchReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // private methods
+
+    /**
+     * The writer thread's loop: waits for a batch, takes all the queued lines and writes them,
+     * until the writer is closed and the buffer is empty.
+     */
+    private void writeBatches() {
+        String[] batchSpeakers = new String[speakers.length];
+        Rope[] batchStatements = new Rope[statements.length];
+        while (true) {
+            int taken;
+            lock.lock();
+            try {
+                long deadline = System.nanoTime() + flushNanos;
+                while (!closed && (count == 0 || count < batchLines && System.nanoTime() < deadline)) {
+                    if (count == 0) {
+                        // the flush time counts from the first line of the batch
+                        batchReady.awaitUninterruptibly();
+                        deadline = System.nanoTime() + flushNanos;
+                    } else {
+                        batchReady.awaitNanos(deadline - System.nanoTime());
+                    }
+                }
+                if (closed && count == 0) {
+                    return;
+                }
+                taken = count;
+                for (int i = 0; i < taken; i++) {
+                    int slot = (head + i) % speakers.length;
+                    batchSpeakers[i] = speakers[slot];
+                    batchStatements[i] = statements[slot];
+                    speakers[slot] = null;
+                    statements[slot] = null;
+                }
+                head = (head + taken) % speakers.length;
+                count = 0;
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                // closing is the only way to stop the writer thread
+                continue;
+            } finally {
+                lock.unlock();
+            }
+            if (!writeBatch(batchSpeakers, batchStatements, taken)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of lines to the file and flushes it.
+     * @param batchSpeakers: String[] - The lines' speakers.
+     * @param batchStatements: Rope[] - The lines' statements.
+     * @param lines: int - The number of lines in the batch.
+     * @return boolean - true if the batch was written, false if writing failed.
+     */
+    private boolean writeBatch(String[] batchSpeakers, Rope[] batchStatements, int lines) {
+        try {
+            for (int i = 0; i < lines; i++) {
+                writer.write(batchSpeakers[i]);
+                writer.write(SPEAKER_SEPARATOR);
+                batchStatements[i].writeTo(writer);
+                writer.write(System.lineSeparator());
+                batchSpeakers[i] = null;
+                batchStatements[i] = null;
+            }
+            writer.flush();
+            return true;
+        } catch (IOException e) {
+            lock.lock();
+            try {
+                // fail the waiting and the next writes, instead of blocking them forever
+                failure = e;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Throws the writer thread's failure, if it failed.
+     * @throws UncheckedIOException  Signals that the writer thread failed to write to the file.
+     */
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException(String.format(WRITE_ERROR_MSG, filename), failure);
+        }
+    }
+}
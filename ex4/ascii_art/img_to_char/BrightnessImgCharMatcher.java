@@ -1,12 +1,12 @@
 package ascii_art.img_to_char;
 
-import image.FileImage;
 import image.Image;
-import image.SubImage;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * A class which converts an Image to a 2D array of Characters.
@@ -14,10 +14,11 @@ import java.util.HashMap;
  */
 public class BrightnessImgCharMatcher {
     private static final char DEFAULT_CHAR = ' ';
-    private final FileImage img;
+    // the number of sub-images below which a band of rows is matched on a single thread
+    private static final int BAND_SUB_IMAGES = 1 << 12;
+    private final Image img;
     private final String font;
     private final BrightnessMap brightnessMap;
-    private final SubImageCache cache;
     private ArrayList<Character> recentChars;
     private int recentNumChars;
     private char[][] recentChosen;
@@ -29,10 +30,9 @@ public class BrightnessImgCharMatcher {
      * @param font: String - The font of the characters.
      */
     public BrightnessImgCharMatcher(Image img, String font) {
-        this.img = (FileImage) img;
+        this.img = img;
         this.font = font;
         brightnessMap = BrightnessMap.getObject();
-        cache = new SubImageCache();
         recentChars = new ArrayList<>();
         recentMap = new HashMap<>();
         recentNumChars = -1;
@@ -72,6 +72,10 @@ public class BrightnessImgCharMatcher {
 
     /**
      * Chooses the chars to represent the Image as ASCII art.
+     * The greyscale value of each sub-image is read from the image (a FileImage reads it from its
+     * summed-area table), so no sub-image is copied, whatever the resolution.
+     * Bands of rows are matched in parallel on the common ForkJoinPool. Every sub-image's char
+     * depends on the sub-image alone, so the result is the same as matching the rows in order.
      * @param charSet: Character[] - The pool of current legal chars.
      * @param normalizedMap: A HashMap of char->double, with normalized brightness values of charSet's chars.
      * @param subImageSize: int - The size of each SubImage.
@@ -79,22 +83,66 @@ public class BrightnessImgCharMatcher {
      */
     private void choose(Character[] charSet, HashMap<Character, Double> normalizedMap,
                         int subImageSize, char[][] chosenChars) {
-        double[][] greys = cache.lookup(subImageSize);
-        // if resolution is in cache -> don't need to divide to sub-images, use greys instead.
-        if (greys == null) {
-            SubImage[][] subImages = (SubImage[][]) img.divideIntoSubImages(subImageSize);
-            greys = new double[subImages.length][subImages[0].length];
-            for (int row = 0; row < subImages.length; row++) {
-                for (int col = 0; col < subImages[0].length; col++) {
-                    greys[row][col] = subImages[row][col].getGreyscaleValue();
-                    chosenChars[row][col] = machChar(greys[row][col], charSet, normalizedMap);
-                }
+        ForkJoinPool.commonPool().invoke(
+                new BandChooser(charSet, normalizedMap, subImageSize, chosenChars, 0, chosenChars.length));
+    }
+
+    /**
+     * Chooses the chars of a band of rows, splitting it in halves which are chosen in parallel,
+     * until a band is small enough to be chosen on a single thread.
+     */
+    private class BandChooser extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Character[] charSet;
+        private final HashMap<Character, Double> normalizedMap;
+        private final int subImageSize;
+        private final char[][] chosenChars;
+        private final int fromRow;
+        private final int toRow;
+
+        /**
+         * Constructs a BandChooser instance for the rows [fromRow, toRow).
+         * @param charSet: Character[] - The pool of current legal chars.
+         * @param normalizedMap: A HashMap of char->double, with normalized brightness values of charSet's chars.
+         * @param subImageSize: int - The size of each SubImage.
+         * @param chosenChars: char[][] - A 2D array of the matching chars chosen to represent the image.
+         * @param fromRow: int - The band's first row.
+         * @param toRow: int - The row after the band's last row.
+         */
+        BandChooser(Character[] charSet, HashMap<Character, Double> normalizedMap,
+                    int subImageSize, char[][] chosenChars, int fromRow, int toRow) {
+            this.charSet = charSet;
+            this.normalizedMap = normalizedMap;
+            this.subImageSize = subImageSize;
+            this.chosenChars = chosenChars;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        /**
+         * Chooses the band's chars, or splits it and chooses both halves in parallel.
+         */
+        @Override
+        protected void compute() {
+            int numCols = chosenChars.length == 0 ? 0 : chosenChars[0].length;
+            if (toRow - fromRow <= 1 || (long) (toRow - fromRow) * numCols <= BAND_SUB_IMAGES) {
+                chooseBand();
+                return;
             }
-            cache.store(subImageSize, greys);
-        } else {
-            for (int row = 0; row < greys.length; row++) {
-                for (int col = 0; col < greys[0].length; col++) {
-                    chosenChars[row][col] = machChar(greys[row][col], charSet, normalizedMap);
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new BandChooser(charSet, normalizedMap, subImageSize, chosenChars, fromRow, middle),
+                      new BandChooser(charSet, normalizedMap, subImageSize, chosenChars, middle, toRow));
+        }
+
+        /**
+         * Chooses the chars of the band's rows, one after another.
+         */
+        private void chooseBand() {
+            for (int row = fromRow; row < toRow; row++) {
+                for (int col = 0; col < chosenChars[row].length; col++) {
+                    double grey = img.getAverageGreyscale(col * subImageSize, row * subImageSize,
+                                                          subImageSize, subImageSize);
+                    chosenChars[row][col] = machChar(grey, charSet, normalizedMap);
                 }
             }
         }
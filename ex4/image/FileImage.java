@@ -3,18 +3,39 @@ package image;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * A package-private class of the package src.image.
+ * Keeps the pixels packed as sRGB ints in a single row-major array, copied in bulk from the file's
+ * raster, and a summed-area table of the pixels' greyscale values built from it when the image is
+ * loaded, so the average greyscale value of any rectangle of the image is found in constant time.
  * @author Dan Nirel
  */
 public class FileImage implements Image {
     private static final Color DEFAULT_COLOR = Color.WHITE;
-    private final Color[][] pixelArray;
+    private static final int DEFAULT_RGB = DEFAULT_COLOR.getRGB();
+    // pixels are kept opaque, as new Color(rgb) keeps them
+    private static final int OPAQUE_ALPHA = 0xFF000000;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int CHANNEL_MASK = 0xFF;
+    // greyscale weights of the red, green and blue channels, scaled to integers so sums are exact
+    private static final long RED_WEIGHT = 2126;
+    private static final long GREEN_WEIGHT = 7152;
+    private static final long BLUE_WEIGHT = 722;
+    private static final long WEIGHTS_SUM = RED_WEIGHT + GREEN_WEIGHT + BLUE_WEIGHT;
+    private static final long MAX_CHANNEL_VALUE = 255;
+    private final int[] pixels;
     private final int newWidth;
     private final int newHeight;
+    private final long[] greyscaleSums;
 
     /**
      * Constructs a FileImage instance.
@@ -27,33 +48,105 @@ public class FileImage implements Image {
         int origWidth = im.getWidth(), origHeight = im.getHeight();
         newWidth = nextPowerOfTwo(origWidth);
         newHeight = nextPowerOfTwo(origHeight);
-        pixelArray = new Color[newHeight][newWidth];
-        fillPixelArray(im, origWidth, origHeight);
+        pixels = new int[newHeight * newWidth];
+        fillPixels(im, origWidth, origHeight);
+        greyscaleSums = new long[(newHeight + 1) * (newWidth + 1)];
+        fillGreyscaleSums();
     }
 
     /**
-     * Fills the instance's pixelArray.
+     * Fills the instance's summed-area table: the entry of (x, y) is the sum of the scaled greyscale
+     * values of all the pixels above and to the left of (x, y), so the table has an extra first row
+     * and column of zeros.
+     */
+    private void fillGreyscaleSums() {
+        int stride = newWidth + 1;
+        for (int row = 0; row < newHeight; row++) {
+            long rowSum = 0;
+            for (int col = 0; col < newWidth; col++) {
+                int rgb = pixels[row * newWidth + col];
+                rowSum += RED_WEIGHT * (rgb >> RED_SHIFT & CHANNEL_MASK) +
+                        GREEN_WEIGHT * (rgb >> GREEN_SHIFT & CHANNEL_MASK) + BLUE_WEIGHT * (rgb & CHANNEL_MASK);
+                greyscaleSums[(row + 1) * stride + col + 1] = greyscaleSums[row * stride + col + 1] + rowSum;
+            }
+        }
+    }
+
+    /**
+     * Fills the instance's pixels: the padding with the default color, and the rest with the given
+     * image's pixels.
      * @param im:           BufferedImage - The given src.image.
      * @param origWidth:    int - The original width of the src.image.
      * @param origHeight:   int - The original height of the src.image.
      */
-    private void fillPixelArray(BufferedImage im, int origWidth, int origHeight) {
+    private void fillPixels(BufferedImage im, int origWidth, int origHeight) {
         int leftPad = (newWidth - origWidth) / 2;
         int rightPad = leftPad;
         int upPad = (newHeight - origHeight) / 2;
         int downPad = upPad;
         leftPad = ifNotEven(origWidth, leftPad);
         upPad = ifNotEven(origHeight, upPad);
-        for (int row = 0; row < newHeight; row++) {
-            for (int col = 0; col < newWidth; col++) {
-                if (row < upPad || row >= origHeight + downPad ||
-                        col < leftPad || col >= origWidth + rightPad) {
-                    pixelArray[row][col] = DEFAULT_COLOR;
-                } else {
-                    pixelArray[row][col] = new Color(im.getRGB(col - leftPad, row - upPad));
+        // an odd side loses its last pixel to the extra padding before it
+        int copyWidth = Math.max(origWidth + rightPad - leftPad, 0);
+        int copyHeight = Math.max(origHeight + downPad - upPad, 0);
+        Arrays.fill(pixels, DEFAULT_RGB);
+        if (copyWidth == 0 || copyHeight == 0) {
+            return;
+        }
+        int offset = upPad * newWidth + leftPad;
+        if (!copyRaster(im, copyWidth, copyHeight, offset)) {
+            im.getRGB(0, 0, copyWidth, copyHeight, pixels, offset, newWidth);
+        }
+        for (int row = 0; row < copyHeight; row++) {
+            int start = offset + row * newWidth;
+            for (int i = start; i < start + copyWidth; i++) {
+                pixels[i] |= OPAQUE_ALPHA;
+            }
+        }
+    }
+
+    /**
+     * Copies the top left rectangle of an image into the instance's pixels straight from the image's
+     * data buffer, if the image has one of the common sRGB layouts which ImageIO reads images into.
+     * @param im:       BufferedImage - The given src.image.
+     * @param width:    int - The width of the copied rectangle.
+     * @param height:   int - The height of the copied rectangle.
+     * @param offset:   int - The index in the instance's pixels of the rectangle's top left pixel.
+     * @return boolean - true if the rectangle was copied, false if the image has another layout.
+     */
+    private boolean copyRaster(BufferedImage im, int width, int height, int offset) {
+        WritableRaster raster = im.getRaster();
+        if (raster.getParent() != null) {
+            return false;
+        }
+        DataBuffer buffer = raster.getDataBuffer();
+        int type = im.getType();
+        if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB) &&
+                buffer instanceof DataBufferInt) {
+            int[] data = ((DataBufferInt) buffer).getData();
+            int scan = im.getWidth();
+            for (int row = 0; row < height; row++) {
+                System.arraycopy(data, row * scan, pixels, offset + row * newWidth, width);
+            }
+            return true;
+        }
+        if ((type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_4BYTE_ABGR) &&
+                buffer instanceof DataBufferByte) {
+            byte[] data = ((DataBufferByte) buffer).getData();
+            // the blue, green and red bytes are the last three of every pixel
+            int pixelBytes = type == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4;
+            int scan = im.getWidth() * pixelBytes;
+            for (int row = 0; row < height; row++) {
+                int in = row * scan + pixelBytes - 3;
+                int out = offset + row * newWidth;
+                for (int col = 0; col < width; col++, in += pixelBytes) {
+                    pixels[out + col] = (data[in + 2] & CHANNEL_MASK) << RED_SHIFT |
+                            (data[in + 1] & CHANNEL_MASK) << GREEN_SHIFT | (data[in] & CHANNEL_MASK);
                 }
             }
+            return true;
         }
+        return false;
     }
 
     private static int ifNotEven(int original, int pad) {
@@ -90,10 +183,42 @@ public class FileImage implements Image {
      */
     @Override
     public Color getPixel(int x, int y) {
-        if (x >= 0 && x < newWidth && y >= 0 && y <= newHeight) {
-            return pixelArray[y][x];
+        if (x >= 0 && x < newWidth && y >= 0 && y < newHeight) {
+            return new Color(pixels[y * newWidth + x]);
+        }
+        return DEFAULT_COLOR;
+    }
+
+    /**
+     * Returns the packed sRGB value of a given pixel with (x, y) coordinates, as Color.getRGB does,
+     * without creating a Color.
+     * @param x: int - The x value of the pixel - column.
+     * @param y: int - The y value of the pixel - row.
+     * @return int - The pixel's 0xAARRGGBB value.
+     *                  if coordinates aren't legal, return the default color white.
+     */
+    public int getRGB(int x, int y) {
+        if (x >= 0 && x < newWidth && y >= 0 && y < newHeight) {
+            return pixels[y * newWidth + x];
         }
-        return Color.WHITE;
+        return DEFAULT_RGB;
+    }
+
+    /**
+     * Returns the average greyscale value of a rectangle of the image, from four entries of the
+     * summed-area table.
+     * @param x: int - The x value of the rectangle's top left pixel - column.
+     * @param y: int - The y value of the rectangle's top left pixel - row.
+     * @param width: int - The width of the rectangle, inside the image.
+     * @param height: int - The height of the rectangle, inside the image.
+     * @return double - The rectangle's normalized greyscale value, between 0 (black) and 1 (white).
+     */
+    @Override
+    public double getAverageGreyscale(int x, int y, int width, int height) {
+        int stride = newWidth + 1;
+        long sum = greyscaleSums[(y + height) * stride + x + width] - greyscaleSums[y * stride + x + width] -
+                greyscaleSums[(y + height) * stride + x] + greyscaleSums[y * stride + x];
+        return (double) sum / ((long) width * height * WEIGHTS_SUM * MAX_CHANNEL_VALUE);
     }
 
     /**
@@ -28,6 +28,25 @@ public interface Image {
      */
     int getHeight();
 
+    /**
+     * Getter: gets the average normalized greyscale value of a rectangle of the image,
+     * by summing the greyscale values of its pixels.
+     * @param x: int - The column of the rectangle's top left pixel.
+     * @param y: int - The row of the rectangle's top left pixel.
+     * @param width: int - The width of the rectangle.
+     * @param height: int - The height of the rectangle.
+     * @return double: The rectangle's greyscale value, between 0 (black) and 1 (white).
+     */
+    default double getAverageGreyscale(int x, int y, int width, int height) {
+        double greyscaleSum = 0;
+        for (int row = y; row < y + height; row++) {
+            for (int col = x; col < x + width; col++) {
+                greyscaleSum += SubImage.pixelToGreyscale(getPixel(col, row));
+            }
+        }
+        return (greyscaleSum / ((double) width * height)) / 255;
+    }
+
     /**
      * Open a src.image from file. Each dimensions of the returned src.image is guaranteed
      * to be a power of 2, but the dimensions may be different.
@@ -77,7 +77,7 @@ public class SubImage implements Image {
      * @param color: Color - a color of a pixel to convert into greyscale.
      * @return int: representing a greyscale value.
      */
-    private static double pixelToGreyscale(Color color) {
+    static double pixelToGreyscale(Color color) {
         return ((color.getRed() * RED_VALUE) +
                         (color.getGreen() * GREEN_VALUE) +
                         (color.getBlue() * BLUE_VALUE));